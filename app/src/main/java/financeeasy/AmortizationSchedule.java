@@ -0,0 +1,252 @@
+package financeeasy;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// --------------------- Amortization Schedule ---------------------
+// Per-period breakdown (interest, principal, remaining balance) of a fixed-rate
+// loan, produced lazily: nothing is stored per period, each one is computed from
+// the previous balance as it is consumed.
+//
+// The balance after any period also has a closed form,
+//   B(k) = P(1+r)^k - M((1+r)^k - 1) / r,
+// which lets a schedule be split at any period (for parallel streams) and lets a
+// single period be looked up in O(1) without walking the ones before it.
+public class AmortizationSchedule {
+    private final double loanAmount;
+    private final double monthlyRate;
+    private final int periods;
+    private final double payment;
+
+    public AmortizationSchedule(double loanAmount, double annualRate, int years) {
+        this.loanAmount = loanAmount;
+        this.monthlyRate = annualRate / 12;
+        this.periods = years * 12;
+        this.payment = Calculators.calculateMonthlyLoanPayment(loanAmount, annualRate, years);
+    }
+
+    public double getPayment() {
+        return payment;
+    }
+
+    public int getPeriods() {
+        return periods;
+    }
+
+    // --------------------- One Period ---------------------
+    public static class Period {
+        private final int number;
+        private final double payment;
+        private final double interest;
+        private final double principal;
+        private final double balance;
+
+        Period(int number, double payment, double interest, double principal, double balance) {
+            this.number = number;
+            this.payment = payment;
+            this.interest = interest;
+            this.principal = principal;
+            this.balance = balance;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public double getPayment() {
+            return payment;
+        }
+
+        public double getInterest() {
+            return interest;
+        }
+
+        public double getPrincipal() {
+            return principal;
+        }
+
+        public double getBalance() {
+            return balance;
+        }
+
+        public String toString() {
+            return String.format("#%d payment $%.2f (interest $%.2f, principal $%.2f) balance $%.2f",
+                    number, payment, interest, principal, balance);
+        }
+    }
+
+    // Receives each period without allocating anything
+    public interface PeriodConsumer {
+        void accept(int period, double payment, double interest, double principal, double balance);
+    }
+
+    // --------------------- Walking the Schedule ---------------------
+    public void forEachPeriod(PeriodConsumer consumer) {
+        double balance = loanAmount;
+        for (int k = 1; k <= periods; k++) {
+            double interest = balance * monthlyRate;
+            double principal = k == periods ? balance : payment - interest; // last payment clears rounding leftovers
+            balance -= principal;
+            consumer.accept(k, interest + principal, interest, principal, balance);
+        }
+    }
+
+    // Remaining balance after period k (closed form); balanceAfter(0) is the loan amount
+    public double balanceAfter(int k) {
+        if (k <= 0) {
+            return loanAmount;
+        }
+        if (k >= periods) {
+            return 0;
+        }
+        if (monthlyRate == 0) {
+            return loanAmount - payment * k;
+        }
+        double growth = Math.pow(1 + monthlyRate, k);
+        return loanAmount * growth - payment * (growth - 1) / monthlyRate;
+    }
+
+    // Interest charged in period k (1-based), in O(1)
+    public double interestInPeriod(int k) {
+        if (k < 1 || k > periods) {
+            return 0;
+        }
+        return balanceAfter(k - 1) * monthlyRate;
+    }
+
+    // Lazy stream of periods; splits at the midpoint period for parallel use
+    public Stream<Period> stream() {
+        return StreamSupport.stream(new PeriodSpliterator(this, 1, periods + 1, loanAmount), false);
+    }
+
+    // Lazy primitive stream of each period's interest
+    public DoubleStream interestStream() {
+        return StreamSupport.doubleStream(new InterestSpliterator(this, 1, periods + 1, loanAmount), false);
+    }
+
+    // --------------------- Portfolio Aggregates ---------------------
+    // Total interest across all loans for each period (index 0 is period 1).
+    // Loans are spread over the fork/join pool; each worker sums into one array of
+    // the longest term, so memory is O(periods * threads), not O(loans * periods).
+    public static double[] totalInterestByPeriod(Collection<AmortizationSchedule> loans) {
+        int maxPeriods = loans.stream().mapToInt(AmortizationSchedule::getPeriods).max().orElse(0);
+        return loans.parallelStream().collect(
+                () -> new double[maxPeriods],
+                (totals, loan) -> loan.forEachPeriod((k, payment, interest, principal, balance) -> totals[k - 1] += interest),
+                (a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                });
+    }
+
+    // Total interest across all loans in one period, without walking earlier periods
+    public static double totalInterestInPeriod(Collection<AmortizationSchedule> loans, int period) {
+        return loans.parallelStream().mapToDouble(loan -> loan.interestInPeriod(period)).sum();
+    }
+
+    // --------------------- Spliterators ---------------------
+    // Shared state for the two spliterators: the next period, the end, and the balance before it
+    private abstract static class Cursor {
+        final AmortizationSchedule schedule;
+        int next;
+        final int end;
+        double balance;
+        double interest;
+        double principal;
+
+        Cursor(AmortizationSchedule schedule, int next, int end, double balance) {
+            this.schedule = schedule;
+            this.next = next;
+            this.end = end;
+            this.balance = balance;
+        }
+
+        boolean step() {
+            if (next >= end) {
+                return false;
+            }
+            interest = balance * schedule.monthlyRate;
+            principal = next == schedule.periods ? balance : schedule.payment - interest;
+            balance -= principal;
+            next++;
+            return true;
+        }
+
+        // Period to split at, or -1 if the rest is too short to be worth splitting.
+        // The caller hands [next, mid) to a new cursor and jumps this one to mid.
+        int splitPoint() {
+            if (end - next < 24) {
+                return -1;
+            }
+            return (next + end) >>> 1;
+        }
+
+        public long estimateSize() {
+            return end - next;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+        }
+    }
+
+    private static class PeriodSpliterator extends Cursor implements Spliterator<Period> {
+        PeriodSpliterator(AmortizationSchedule schedule, int next, int end, double balance) {
+            super(schedule, next, end, balance);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Period> action) {
+            if (!step()) {
+                return false;
+            }
+            action.accept(new Period(next - 1, interest + principal, interest, principal, balance));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Period> trySplit() {
+            int mid = splitPoint();
+            if (mid < 0) {
+                return null;
+            }
+            PeriodSpliterator prefix = new PeriodSpliterator(schedule, next, mid, balance);
+            next = mid;
+            balance = schedule.balanceAfter(mid - 1);
+            return prefix;
+        }
+    }
+
+    private static class InterestSpliterator extends Cursor implements Spliterator.OfDouble {
+        InterestSpliterator(AmortizationSchedule schedule, int next, int end, double balance) {
+            super(schedule, next, end, balance);
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (!step()) {
+                return false;
+            }
+            action.accept(interest);
+            return true;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            int mid = splitPoint();
+            if (mid < 0) {
+                return null;
+            }
+            InterestSpliterator prefix = new InterestSpliterator(schedule, next, mid, balance);
+            next = mid;
+            balance = schedule.balanceAfter(mid - 1);
+            return prefix;
+        }
+    }
+}
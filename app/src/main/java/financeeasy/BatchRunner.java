@@ -0,0 +1,340 @@
+package financeeasy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+// --------------------- Batch Runner ---------------------
+// Headless mode for scripts and nightly jobs: `Main --batch <file>` (or `-` for stdin).
+// Reads one record per line and writes JSON lines:
+//
+//   income,3000                   monthly income
+//   expense,2024-01-05,Food,12.50 one expense (date, category, amount)
+//   tax,52000,15                  income, rate in %
+//   tax,52000,single,18000        gross income, filing profile, optional itemized deductions
+//   loan,200000,5,30              amount, annual rate in %, years
+//   compound,1000,5,12,10         principal, annual rate in %, times per year, years
+//   rate,200000,1073.64,30        loan amount, monthly payment, years -> implied rate
+//   afford,1500,5,30              monthly payment, annual rate in %, years -> largest loan
+//   payoff,200000,5,1500          loan amount, annual rate in %, monthly payment -> months
+//   # comment / blank lines are ignored
+//
+// Calculator results are written as soon as their line is read. Expenses are not
+// kept: only totals per category and per month, so memory stays the same however
+// long the input is. The summary, category and month lines come at the end.
+public class BatchRunner {
+    private long incomeCents = 0;
+    private long totalCents = 0;
+    private long expenseCount = 0;
+    private long errorCount = 0;
+    private long lineNumber = 0;
+
+    // category -> {cents, count}; month key (year * 12 + month - 1) -> cents
+    private final HashMap<String, long[]> categories = new HashMap<>();
+    private final TreeMap<Integer, long[]> months = new TreeMap<>();
+
+    // Job files repeat the same few rates and terms, so calculators go through the cache
+    private final CalculatorCache calculators = CalculatorCache.shared();
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(128); // reused for every output line
+    private final ArrayList<String> fields = new ArrayList<>();
+
+    public BatchRunner(Writer out) {
+        this.out = out;
+    }
+
+    // --------------------- Running ---------------------
+    public void run(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            process(text);
+        }
+        writeSummary();
+        out.flush();
+    }
+
+    private void process(String text) throws IOException {
+        if (text.isBlank() || text.charAt(0) == '#') {
+            return;
+        }
+        split(text);
+        String type = fields.get(0).toLowerCase();
+        try {
+            switch (type) {
+                case "income" -> {
+                    expectFields(2);
+                    incomeCents = Money.parse(fields.get(1));
+                }
+                case "expense" -> {
+                    expectFields(4);
+                    addExpense(fields.get(1), fields.get(2), Money.parse(fields.get(3)));
+                }
+                case "tax" -> {
+                    TaxBrackets.Profile profile = fields.size() >= 3 ? TaxBrackets.profile(fields.get(2)) : null;
+                    if (profile != null) {
+                        bracketTax(profile);
+                        return;
+                    }
+                    expectFields(3);
+                    long income = Money.parse(fields.get(1));
+                    double percent = parsePercent(fields.get(2));
+                    long tax = Calculators.estimateTaxCents(income, percent / 100.0, RoundingMode.HALF_EVEN);
+                    startLine("tax");
+                    money("income", income);
+                    number("ratePercent", percent);
+                    money("tax", tax);
+                    endLine();
+                }
+                case "loan" -> {
+                    expectFields(4);
+                    long amount = Money.parse(fields.get(1));
+                    double percent = parsePercent(fields.get(2));
+                    int years = Integer.parseInt(fields.get(3));
+                    long payment = calculators.monthlyLoanPaymentCents(amount, percent / 100.0, years, RoundingMode.HALF_UP);
+                    startLine("loan");
+                    money("amount", amount);
+                    number("ratePercent", percent);
+                    number("years", years);
+                    money("monthlyPayment", payment);
+                    endLine();
+                }
+                case "compound" -> {
+                    expectFields(5);
+                    long principal = Money.parse(fields.get(1));
+                    double percent = parsePercent(fields.get(2));
+                    int timesPerYear = Integer.parseInt(fields.get(3));
+                    int years = Integer.parseInt(fields.get(4));
+                    long future = calculators.compoundInterestCents(principal, percent / 100.0, timesPerYear, years, RoundingMode.HALF_EVEN);
+                    startLine("compound");
+                    money("principal", principal);
+                    number("ratePercent", percent);
+                    number("timesPerYear", timesPerYear);
+                    number("years", years);
+                    money("futureValue", future);
+                    endLine();
+                }
+                case "rate" -> {
+                    expectFields(4);
+                    long amount = Money.parse(fields.get(1));
+                    long payment = Money.parse(fields.get(2));
+                    int years = Integer.parseInt(fields.get(3));
+                    double rate = Solvers.impliedAnnualRate(Money.toDollars(amount), Money.toDollars(payment), years * 12);
+                    if (Double.isNaN(rate)) {
+                        throw new IllegalArgumentException("Payments do not cover the loan amount");
+                    }
+                    startLine("rate");
+                    money("amount", amount);
+                    money("monthlyPayment", payment);
+                    number("years", years);
+                    number("ratePercent", rate * 100);
+                    endLine();
+                }
+                case "afford" -> {
+                    expectFields(4);
+                    long payment = Money.parse(fields.get(1));
+                    double percent = parsePercent(fields.get(2));
+                    int years = Integer.parseInt(fields.get(3));
+                    double loan = Solvers.maxAffordableLoan(Money.toDollars(payment), percent / 100.0, years);
+                    startLine("afford");
+                    money("monthlyPayment", payment);
+                    number("ratePercent", percent);
+                    number("years", years);
+                    money("maxLoan", Money.fromDollars(loan, RoundingMode.FLOOR));
+                    endLine();
+                }
+                case "payoff" -> {
+                    expectFields(4);
+                    long amount = Money.parse(fields.get(1));
+                    double percent = parsePercent(fields.get(2));
+                    long payment = Money.parse(fields.get(3));
+                    int months = Solvers.monthsToPayoff(Money.toDollars(amount), percent / 100.0, Money.toDollars(payment));
+                    if (months < 0) {
+                        throw new IllegalArgumentException("Payment does not cover the interest");
+                    }
+                    startLine("payoff");
+                    money("amount", amount);
+                    number("ratePercent", percent);
+                    money("monthlyPayment", payment);
+                    number("months", months);
+                    endLine();
+                }
+                default -> throw new IllegalArgumentException("Unknown record type: " + fields.get(0));
+            }
+        } catch (RuntimeException ex) {
+            errorCount++;
+            startLine("error");
+            number("line", lineNumber);
+            string("message", ex.getMessage() == null ? ex.toString() : ex.getMessage());
+            endLine();
+        }
+    }
+
+    private void bracketTax(TaxBrackets.Profile profile) throws IOException {
+        if (fields.size() != 3 && fields.size() != 4) {
+            throw new IllegalArgumentException("Expected 3 or 4 fields but found " + fields.size());
+        }
+        long gross = Money.parse(fields.get(1));
+        long itemized = fields.size() == 4 ? Money.parse(fields.get(3)) : 0;
+        long taxable = profile.taxableCents(gross, itemized);
+        long tax = profile.getBrackets().taxCents(taxable, RoundingMode.HALF_EVEN);
+        startLine("tax");
+        money("income", gross);
+        string("profile", profile.getName());
+        money("taxable", taxable);
+        number("marginalRatePercent", profile.getBrackets().marginalRate(taxable) * 100);
+        money("tax", tax);
+        endLine();
+    }
+
+    private void addExpense(String date, String category, long cents) {
+        int month = monthKey(date);
+        if (month < 0) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+        long[] categoryTotal = categories.computeIfAbsent(category, k -> new long[2]);
+        categoryTotal[0] += cents;
+        categoryTotal[1]++;
+        months.computeIfAbsent(month, k -> new long[1])[0] += cents;
+        totalCents += cents;
+        expenseCount++;
+    }
+
+    private static double parsePercent(String text) {
+        double percent = Double.parseDouble(text);
+        if (!Double.isFinite(percent)) {
+            throw new IllegalArgumentException("Invalid rate: " + text);
+        }
+        return percent;
+    }
+
+    private void expectFields(int count) {
+        if (fields.size() != count) {
+            throw new IllegalArgumentException("Expected " + count + " fields but found " + fields.size());
+        }
+    }
+
+    // Splits on commas; a field in double quotes may contain commas
+    private void split(String text) {
+        fields.clear();
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || (text.charAt(i) == ',' && !quoted)) {
+                String field = text.substring(start, i).trim();
+                if (field.length() >= 2 && field.charAt(0) == '"' && field.charAt(field.length() - 1) == '"') {
+                    field = field.substring(1, field.length() - 1);
+                }
+                fields.add(field);
+                start = i + 1;
+            } else if (text.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+    }
+
+    // YYYY-MM-DD to year * 12 + month - 1, or -1 if it is not a real date
+    static int monthKey(String date) {
+        if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return -1;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return -1;
+        }
+        boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+        int length = month == 2 ? (leap ? 29 : 28) : (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+        return day > length ? -1 : year * 12 + month - 1;
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // --------------------- Summary ---------------------
+    private void writeSummary() throws IOException {
+        startLine("summary");
+        number("expenses", expenseCount);
+        number("errors", errorCount);
+        money("income", incomeCents);
+        money("totalSpent", totalCents);
+        money("leftover", incomeCents - totalCents);
+        endLine();
+
+        for (String category : categories.keySet()) {
+            long[] total = categories.get(category);
+            startLine("category");
+            string("category", category);
+            money("total", total[0]);
+            number("count", total[1]);
+            endLine();
+        }
+
+        for (Integer key : months.keySet()) {
+            startLine("month");
+            line.append(",\"month\":\"").append(key / 12).append('-');
+            int month = key % 12 + 1;
+            line.append(month < 10 ? "0" : "").append(month).append('"');
+            money("total", months.get(key)[0]);
+            money("leftover", incomeCents - months.get(key)[0]);
+            endLine();
+        }
+    }
+
+    // --------------------- JSON Output ---------------------
+    private void startLine(String type) {
+        line.setLength(0);
+        line.append("{\"type\":\"").append(type).append('"');
+    }
+
+    private void endLine() throws IOException {
+        line.append("}\n");
+        out.append(line);
+    }
+
+    private void money(String name, long cents) {
+        Money.append(line.append(",\"").append(name).append("\":"), cents);
+    }
+
+    private void number(String name, long value) {
+        line.append(",\"").append(name).append("\":").append(value);
+    }
+
+    private void number(String name, double value) {
+        line.append(",\"").append(name).append("\":").append(value);
+    }
+
+    private void string(String name, String value) {
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,219 @@
+package financeeasy;
+
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// --------------------- Calculator Cache ---------------------
+// Opt-in memoizing front end for the loan and compound interest calculators, for
+// quoting workloads that ask for the same few rates and terms over and over.
+//
+// Only the Math.pow part (the growth or payment factor, which depends on rate and
+// term but not on the amount) is cached. The amount is then applied with exactly
+// the same expression as in Calculators, so every result is bit-for-bit identical
+// to the uncached method.
+//
+// Two levels:
+// 1. Precomputed tables for the standard grid: quarter-point rates from 0% to 20%,
+//    loan terms of 5-30 years, and yearly/quarterly/monthly compounding up to 40
+//    years. A rate only uses the table if it is exactly k / 400 as a double.
+// 2. A bounded direct-mapped cache for everything else. Each slot holds one
+//    immutable entry, so reads are a plain array load with no locking; a new
+//    key simply replaces whatever was in its slot.
+public class CalculatorCache {
+    private static final int RATE_STEPS = 81; // 0% to 20% in quarter points
+    private static final int[] LOAN_TERMS = {5, 10, 15, 20, 25, 30};
+    private static final int[] COMPOUNDINGS = {1, 4, 12};
+    private static final int MAX_COMPOUND_YEARS = 40;
+
+    private static final double[][] LOAN_FACTORS = new double[RATE_STEPS][LOAN_TERMS.length];
+    private static final double[][][] GROWTH = new double[RATE_STEPS][COMPOUNDINGS.length][MAX_COMPOUND_YEARS + 1];
+
+    static {
+        for (int k = 0; k < RATE_STEPS; k++) {
+            double rate = k / 400.0;
+            for (int t = 0; t < LOAN_TERMS.length; t++) {
+                LOAN_FACTORS[k][t] = Calculators.paymentFactor(rate, LOAN_TERMS[t]);
+            }
+            for (int c = 0; c < COMPOUNDINGS.length; c++) {
+                int n = COMPOUNDINGS[c];
+                for (int years = 1; years <= MAX_COMPOUND_YEARS; years++) {
+                    GROWTH[k][c][years] = Math.pow(1 + (rate / n), n * years);
+                }
+            }
+        }
+    }
+
+    private static volatile CalculatorCache shared;
+
+    // One cache entry: the key (kind, rate bits, compounding, term) and the factor.
+    // Loan payment factors and growth factors are told apart by `loan`, not by a
+    // timesPerYear value, since any int can reach the compound interest calculator.
+    private static final class Entry {
+        final boolean loan;
+        final long rateBits;
+        final int timesPerYear;
+        final int years;
+        final double factor;
+
+        Entry(boolean loan, long rateBits, int timesPerYear, int years, double factor) {
+            this.loan = loan;
+            this.rateBits = rateBits;
+            this.timesPerYear = timesPerYear;
+            this.years = years;
+            this.factor = factor;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    private final LongAdder tableHits = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder missNanos = new LongAdder();
+
+    public CalculatorCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // next power of two
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    // Process-wide cache with 4096 slots, created on first use
+    public static CalculatorCache shared() {
+        CalculatorCache cache = shared;
+        if (cache == null) {
+            synchronized (CalculatorCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    cache = new CalculatorCache(4096);
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    // --------------------- Calculators ---------------------
+    public double calculateMonthlyLoanPayment(double loanAmount, double annualRate, int years) {
+        return Calculators.applyPaymentFactor(loanAmount, annualRate, years, loanFactor(annualRate, years));
+    }
+
+    public double calculateCompoundInterest(double principal, double rate, int timesPerYear, int years) {
+        return principal * growth(rate, timesPerYear, years);
+    }
+
+    public long monthlyLoanPaymentCents(long loanCents, double annualRate, int years, RoundingMode mode) {
+        return Money.round(Calculators.applyPaymentFactor(loanCents, annualRate, years, loanFactor(annualRate, years)), mode);
+    }
+
+    public long compoundInterestCents(long principalCents, double rate, int timesPerYear, int years, RoundingMode mode) {
+        return Money.round(principalCents * growth(rate, timesPerYear, years), mode);
+    }
+
+    // --------------------- Lookups ---------------------
+    private double loanFactor(double annualRate, int years) {
+        int k = rateStep(annualRate);
+        int t = k < 0 ? -1 : indexOf(LOAN_TERMS, years);
+        if (t >= 0) {
+            tableHits.increment();
+            return LOAN_FACTORS[k][t];
+        }
+        return cached(true, annualRate, 0, years);
+    }
+
+    private double growth(double rate, int timesPerYear, int years) {
+        int k = rateStep(rate);
+        int c = k < 0 ? -1 : indexOf(COMPOUNDINGS, timesPerYear);
+        if (c >= 0 && years >= 1 && years <= MAX_COMPOUND_YEARS) {
+            tableHits.increment();
+            return GROWTH[k][c][years];
+        }
+        return cached(false, rate, timesPerYear, years);
+    }
+
+    private double cached(boolean loan, double rate, int timesPerYear, int years) {
+        long bits = Double.doubleToRawLongBits(rate);
+        long h = (bits ^ (bits >>> 29)) * 0x9E3779B97F4A7C15L + timesPerYear * 31L + years + (loan ? 0x5BD1E995L : 0);
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.loan == loan && entry.rateBits == bits && entry.timesPerYear == timesPerYear && entry.years == years) {
+            cacheHits.increment();
+            return entry.factor;
+        }
+        long start = System.nanoTime();
+        double factor = loan
+                ? Calculators.paymentFactor(rate, years)
+                : Math.pow(1 + (rate / timesPerYear), timesPerYear * years);
+        slots.lazySet(slot, new Entry(loan, bits, timesPerYear, years, factor));
+        misses.increment();
+        missNanos.add(System.nanoTime() - start);
+        return factor;
+    }
+
+    // k if rate is exactly k / 400 for a table row, otherwise -1
+    private static int rateStep(double rate) {
+        double scaled = Math.rint(rate * 400);
+        if (scaled < 0 || scaled >= RATE_STEPS) {
+            return -1;
+        }
+        int k = (int) scaled;
+        return k / 400.0 == rate ? k : -1;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // --------------------- Metrics ---------------------
+    public static class Stats {
+        private final long tableHits;
+        private final long cacheHits;
+        private final long misses;
+        private final long missNanos;
+
+        Stats(long tableHits, long cacheHits, long misses, long missNanos) {
+            this.tableHits = tableHits;
+            this.cacheHits = cacheHits;
+            this.misses = misses;
+            this.missNanos = missNanos;
+        }
+
+        public long getTableHits() {
+            return tableHits;
+        }
+
+        public long getCacheHits() {
+            return cacheHits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public double getHitRate() {
+            long total = tableHits + cacheHits + misses;
+            return total == 0 ? 0 : (double) (tableHits + cacheHits) / total;
+        }
+
+        // Average cost of computing a factor on a miss; hits cost a few nanoseconds
+        // (see CalculatorsBenchmark)
+        public double getAverageMissNanos() {
+            return misses == 0 ? 0 : (double) missNanos / misses;
+        }
+
+        public String toString() {
+            return String.format("table hits %d, cache hits %d, misses %d (%.1f%% hit rate, %.0f ns per miss)",
+                    tableHits, cacheHits, misses, getHitRate() * 100, getAverageMissNanos());
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(tableHits.sum(), cacheHits.sum(), misses.sum(), missNanos.sum());
+    }
+}
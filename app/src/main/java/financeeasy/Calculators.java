@@ -0,0 +1,226 @@
+package financeeasy;
+
+import java.math.RoundingMode;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
+
+public class Calculators {
+
+    // ---------------- Compound Interest ----------------
+    public static double calculateCompoundInterest(double principal, double rate, int timesPerYear, int years) {
+        long start = Metrics.start();
+        // formula: A = P(1 + r/n)^(nt)
+        double result = principal * Math.pow(1 + (rate / timesPerYear), timesPerYear * years);
+        Metrics.CALCULATOR_COMPOUND.stop(start);
+        return result;
+    }
+
+    // ---------------- Tax Estimator ----------------
+    public static double estimateTax(double income, double taxRate) {
+        long start = Metrics.start();
+        // taxRate is expected in decimal (e.g., 0.15 for 15%)
+        double result = income * taxRate;
+        Metrics.CALCULATOR_TAX.stop(start);
+        return result;
+    }
+
+    // ---------------- Loan Calculator ----------------
+    public static double calculateMonthlyLoanPayment(double loanAmount, double annualRate, int years) {
+        long start = Metrics.start();
+        try {
+            return monthlyLoanPayment(loanAmount, annualRate, years);
+        } finally {
+            Metrics.CALCULATOR_LOAN.stop(start);
+        }
+    }
+
+    private static double monthlyLoanPayment(double loanAmount, double annualRate, int years) {
+        // monthly formula: M = P * (r(1+r)^n) / ((1+r)^n - 1)
+        double monthlyRate = annualRate / 12;
+        int totalMonths = years * 12;
+
+        if (monthlyRate == 0) {
+            return loanAmount / totalMonths; // no interest case
+        }
+
+        double growth = Math.pow(1 + monthlyRate, totalMonths); // (1+r)^n, computed once
+        double numerator = monthlyRate * growth;
+        double denominator = growth - 1;
+
+        return loanAmount * (numerator / denominator);
+    }
+
+    // ---------------- Cents Versions ----------------
+    // Same formulas on whole cents, rounded back to cents with the given mode so
+    // results are reproducible (e.g. HALF_UP for payments, FLOOR for conservative
+    // interest). The growth factors are identical to the double versions.
+    public static long compoundInterestCents(long principalCents, double rate, int timesPerYear, int years, RoundingMode mode) {
+        long start = Metrics.start();
+        long result = Money.round(principalCents * Math.pow(1 + (rate / timesPerYear), timesPerYear * years), mode);
+        Metrics.CALCULATOR_COMPOUND.stop(start);
+        return result;
+    }
+
+    public static long estimateTaxCents(long incomeCents, double taxRate, RoundingMode mode) {
+        long start = Metrics.start();
+        long result = Money.round(incomeCents * taxRate, mode);
+        Metrics.CALCULATOR_TAX.stop(start);
+        return result;
+    }
+
+    // Progressive version; see TaxBrackets (TaxBrackets.flat(rate) matches the flat methods)
+    public static long estimateTaxCents(long incomeCents, TaxBrackets brackets, RoundingMode mode) {
+        long start = Metrics.start();
+        long result = brackets.taxCents(incomeCents, mode);
+        Metrics.CALCULATOR_TAX.stop(start);
+        return result;
+    }
+
+    public static long monthlyLoanPaymentCents(long loanCents, double annualRate, int years, RoundingMode mode) {
+        long start = Metrics.start();
+        long result = Money.round(applyPaymentFactor(loanCents, annualRate, years, paymentFactor(annualRate, years)), mode);
+        Metrics.CALCULATOR_LOAN.stop(start);
+        return result;
+    }
+
+    public static void estimateTaxCents(long[] incomeCents, double taxRate, RoundingMode mode, long[] out) {
+        forBlocks(out.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = Money.round(incomeCents[i] * taxRate, mode);
+            }
+        });
+    }
+
+    // ---------------- Batch Versions ----------------
+    // Evaluate many scenarios per call, writing into a caller-provided output array.
+    // Every element is computed with exactly the same expression as the scalar
+    // method, so results are bit-for-bit identical to calling it in a loop.
+    // When consecutive scenarios share a rate and term (e.g. a rate sheet with many
+    // principals) the Math.pow result is reused. Batches of PARALLEL_THRESHOLD or
+    // more are split into blocks across the common fork/join pool.
+    static final int PARALLEL_THRESHOLD = 16_384;
+    private static final int BLOCK = 4_096;
+
+    public static void calculateCompoundInterest(double[] principal, double[] rate, int[] timesPerYear, int[] years, double[] out) {
+        forBlocks(out.length, (from, to) -> compoundRange(principal, rate, timesPerYear, years, out, from, to));
+    }
+
+    public static void calculateMonthlyLoanPayment(double[] loanAmount, double[] annualRate, int[] years, double[] out) {
+        forBlocks(out.length, (from, to) -> loanRange(loanAmount, annualRate, years, out, from, to));
+    }
+
+    public static void estimateTax(double[] income, double taxRate, double[] out) {
+        forBlocks(out.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = income[i] * taxRate;
+            }
+        });
+    }
+
+    // Buffer versions read from each buffer's position and fill out.remaining() results;
+    // buffer positions are not moved
+    public static void calculateCompoundInterest(DoubleBuffer principal, DoubleBuffer rate, IntBuffer timesPerYear, IntBuffer years, DoubleBuffer out) {
+        int p = principal.position(), r = rate.position(), n = timesPerYear.position(), t = years.position(), o = out.position();
+        forBlocks(out.remaining(), (from, to) -> {
+            double lastRate = Double.NaN;
+            int lastTimes = 0, lastYears = 0;
+            double growth = 0;
+            for (int i = from; i < to; i++) {
+                double rt = rate.get(r + i);
+                int times = timesPerYear.get(n + i);
+                int yrs = years.get(t + i);
+                if (Double.doubleToRawLongBits(rt) != Double.doubleToRawLongBits(lastRate) || times != lastTimes || yrs != lastYears) {
+                    growth = Math.pow(1 + (rt / times), times * yrs);
+                    lastRate = rt;
+                    lastTimes = times;
+                    lastYears = yrs;
+                }
+                out.put(o + i, principal.get(p + i) * growth);
+            }
+        });
+    }
+
+    public static void calculateMonthlyLoanPayment(DoubleBuffer loanAmount, DoubleBuffer annualRate, IntBuffer years, DoubleBuffer out) {
+        int a = loanAmount.position(), r = annualRate.position(), y = years.position(), o = out.position();
+        forBlocks(out.remaining(), (from, to) -> {
+            double lastRate = Double.NaN;
+            int lastYears = 0;
+            double factor = 0;
+            for (int i = from; i < to; i++) {
+                double rt = annualRate.get(r + i);
+                int yrs = years.get(y + i);
+                if (Double.doubleToRawLongBits(rt) != Double.doubleToRawLongBits(lastRate) || yrs != lastYears) {
+                    factor = paymentFactor(rt, yrs);
+                    lastRate = rt;
+                    lastYears = yrs;
+                }
+                out.put(o + i, applyPaymentFactor(loanAmount.get(a + i), rt, yrs, factor));
+            }
+        });
+    }
+
+    private static void compoundRange(double[] principal, double[] rate, int[] timesPerYear, int[] years, double[] out, int from, int to) {
+        double lastRate = Double.NaN;
+        int lastTimes = 0, lastYears = 0;
+        double growth = 0;
+        for (int i = from; i < to; i++) {
+            double r = rate[i];
+            int n = timesPerYear[i];
+            int t = years[i];
+            if (Double.doubleToRawLongBits(r) != Double.doubleToRawLongBits(lastRate) || n != lastTimes || t != lastYears) {
+                growth = Math.pow(1 + (r / n), n * t);
+                lastRate = r;
+                lastTimes = n;
+                lastYears = t;
+            }
+            out[i] = principal[i] * growth;
+        }
+    }
+
+    private static void loanRange(double[] loanAmount, double[] annualRate, int[] years, double[] out, int from, int to) {
+        double lastRate = Double.NaN;
+        int lastYears = 0;
+        double factor = 0;
+        for (int i = from; i < to; i++) {
+            double r = annualRate[i];
+            int y = years[i];
+            if (Double.doubleToRawLongBits(r) != Double.doubleToRawLongBits(lastRate) || y != lastYears) {
+                factor = paymentFactor(r, y);
+                lastRate = r;
+                lastYears = y;
+            }
+            out[i] = applyPaymentFactor(loanAmount[i], r, y, factor);
+        }
+    }
+
+    // numerator / denominator from the scalar loan formula, which only depends on rate and term
+    static double paymentFactor(double annualRate, int years) {
+        double monthlyRate = annualRate / 12;
+        if (monthlyRate == 0) {
+            return 0;
+        }
+        double growth = Math.pow(1 + monthlyRate, years * 12);
+        return (monthlyRate * growth) / (growth - 1);
+    }
+
+    static double applyPaymentFactor(double loanAmount, double annualRate, int years, double factor) {
+        if (annualRate / 12 == 0) {
+            return loanAmount / (years * 12); // no interest case
+        }
+        return loanAmount * factor;
+    }
+
+    interface RangeTask {
+        void run(int from, int to);
+    }
+
+    static void forBlocks(int count, RangeTask task) {
+        if (count < PARALLEL_THRESHOLD) {
+            task.run(0, count);
+            return;
+        }
+        int blocks = (count + BLOCK - 1) / BLOCK;
+        IntStream.range(0, blocks).parallel().forEach(b -> task.run(b * BLOCK, Math.min(count, (b + 1) * BLOCK)));
+    }
+}
@@ -0,0 +1,202 @@
+package financeeasy;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// --------------------- Concurrent Ledger ---------------------
+// Ingestion front end for many producer threads at once (import jobs, card feeds).
+// BudgetManager itself is single-threaded; producers add here and the rows are
+// later drained into a BudgetManager.
+//
+// Writes are striped like a LongAdder: each thread always goes to the same stripe,
+// which has its own lock, ExpenseStore and per-category running sums in cents. Producers on
+// different stripes never contend, so throughput grows with the number of cores.
+//
+// A snapshot locks every stripe, always in index order, and merges their sums while
+// holding all of them (O(categories) per stripe), so it is one point in time: if an
+// expense is in it, so is every expense added before that one finished, on any
+// stripe. Writers wait for at most that merge.
+//
+// Draining hands every stripe's rows to the budget as one importAndSave. The rows
+// are put back in their stripes if that fails, ahead of any added meanwhile.
+public class ConcurrentLedger {
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public ConcurrentLedger() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ConcurrentLedger(int stripeCount) {
+        int n = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1; // next power of two
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe();
+        }
+        mask = n - 1;
+    }
+
+    // --------------------- One Stripe ---------------------
+    private static class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        ExpenseStore store = new ExpenseStore();
+        long totalCents;
+        long[] categoryTotals = new long[8]; // indexed by this stripe's category ids
+
+        void add(String category, long cents, int epochDay) {
+            int id = store.categoryId(category);
+            store.add(id, cents, epochDay);
+            if (id >= categoryTotals.length) {
+                categoryTotals = Arrays.copyOf(categoryTotals, Math.max(id + 1, categoryTotals.length * 2));
+            }
+            categoryTotals[id] += cents;
+            totalCents += cents;
+        }
+
+        void clear() {
+            store = new ExpenseStore();
+            totalCents = 0;
+            categoryTotals = new long[8];
+        }
+
+        // Puts rows taken by a failed drain back in front of any added since
+        void restore(ExpenseStore taken) {
+            ExpenseStore added = store;
+            clear();
+            addAll(taken);
+            addAll(added);
+        }
+
+        private void addAll(ExpenseStore rows) {
+            for (int i = 0; i < rows.size(); i++) {
+                add(rows.getCategory(i), rows.getCents(i), rows.getEpochDay(i));
+            }
+        }
+    }
+
+    private Stripe stripeForCurrentThread() {
+        long id = Thread.currentThread().getId();
+        return stripes[(int) (id ^ (id >>> 16)) & mask];
+    }
+
+    // --------------------- Adding (any thread) ---------------------
+    public void addExpense(Expense e) {
+        addExpense(e.getCategory(), e.getCents(), (int) e.getDate().toEpochDay());
+    }
+
+    public void addExpense(String category, long cents, LocalDate date) {
+        addExpense(category, cents, (int) date.toEpochDay());
+    }
+
+    public void addExpense(String category, long cents, int epochDay) {
+        Stripe stripe = stripeForCurrentThread();
+        stripe.lock.lock();
+        try {
+            stripe.add(category, cents, epochDay);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // --------------------- Snapshot (any thread) ---------------------
+    public static class Snapshot {
+        private final int count;
+        private final long totalCents;
+        private final HashMap<String, Double> byCategory;
+
+        Snapshot(int count, long totalCents, HashMap<String, Double> byCategory) {
+            this.count = count;
+            this.totalCents = totalCents;
+            this.byCategory = byCategory;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalCents() {
+            return totalCents;
+        }
+
+        public double getTotalSpent() {
+            return Money.toDollars(totalCents);
+        }
+
+        public HashMap<String, Double> getByCategory() {
+            return new HashMap<>(byCategory);
+        }
+    }
+
+    public Snapshot snapshot() {
+        int count = 0;
+        long total = 0;
+        HashMap<String, Long> categories = new HashMap<>();
+        int locked = 0;
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                locked++;
+            }
+            for (Stripe stripe : stripes) {
+                count += stripe.store.size();
+                total += stripe.totalCents;
+                for (int id = 0; id < stripe.store.getCategoryCount(); id++) {
+                    categories.merge(stripe.store.getCategoryName(id), stripe.categoryTotals[id], Long::sum);
+                }
+            }
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                stripes[i].lock.unlock();
+            }
+        }
+        HashMap<String, Double> byCategory = new HashMap<>();
+        for (String category : categories.keySet()) {
+            byCategory.put(category, Money.toDollars(categories.get(category)));
+        }
+        return new Snapshot(count, total, byCategory);
+    }
+
+    // --------------------- Draining ---------------------
+    // Moves everything added so far into a BudgetManager and saves it there (one
+    // snapshot if it has a journal). Producers keep adding while it runs; each stripe
+    // is only locked while its rows are swapped out. If the import fails, nothing is
+    // kept in the budget and every row is back in the ledger.
+    public int drainTo(Main.BudgetManager budget) throws IOException {
+        ExpenseStore[] taken = new ExpenseStore[stripes.length];
+        try {
+            budget.importAndSave(sink -> {
+                for (int i = 0; i < stripes.length; i++) {
+                    Stripe stripe = stripes[i];
+                    stripe.lock.lock();
+                    try {
+                        taken[i] = stripe.store;
+                        stripe.clear();
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                    sink.accept(taken[i]);
+                }
+            });
+        } catch (IOException | RuntimeException ex) {
+            for (int i = 0; i < stripes.length; i++) {
+                if (taken[i] != null) {
+                    stripes[i].lock.lock();
+                    try {
+                        stripes[i].restore(taken[i]);
+                    } finally {
+                        stripes[i].lock.unlock();
+                    }
+                }
+            }
+            throw ex;
+        }
+        int moved = 0;
+        for (ExpenseStore rows : taken) {
+            moved += rows.size();
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,445 @@
+package financeeasy;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+// --------------------- CSV Importer ---------------------
+// Bulk-loads bank statement exports (CSV) into a BudgetManager.
+//
+// The file is read through memory-mapped windows and parsed straight from the
+// bytes: no String is built per line, dates and amounts are parsed by hand, and a
+// category name is only turned into a String the first time it is seen.
+// The file is processed in rounds of WINDOW bytes per thread; each round is split
+// across the cores and the parsed rows are appended to the budget in file order,
+// so memory stays bounded no matter how large the file is. The whole file is one
+// BudgetManager.importAndSave: if a round fails (or the snapshot after the last one),
+// the budget is cut back to the rows it had before, so it and the saved ledger agree.
+public class CsvImporter {
+    private static final int WINDOW = 32 * 1024 * 1024; // bytes per thread per round
+    private static final int MAX_LINE = 64 * 1024;
+
+    private final int dateColumn;
+    private final int categoryColumn;
+    private final int amountColumn;
+    private final byte delimiter;
+    private final boolean hasHeader;
+    private final int threads;
+
+    // Default layout: Date,Category,Amount with a header row
+    public CsvImporter() {
+        this(0, 1, 2, ',', true);
+    }
+
+    public CsvImporter(int dateColumn, int categoryColumn, int amountColumn, char delimiter, boolean hasHeader) {
+        this(dateColumn, categoryColumn, amountColumn, delimiter, hasHeader, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CsvImporter(int dateColumn, int categoryColumn, int amountColumn, char delimiter, boolean hasHeader, int threads) {
+        this.dateColumn = dateColumn;
+        this.categoryColumn = categoryColumn;
+        this.amountColumn = amountColumn;
+        this.delimiter = (byte) delimiter;
+        this.hasHeader = hasHeader;
+        this.threads = Math.max(1, threads);
+    }
+
+    // --------------------- Import Result ---------------------
+    public static class Result {
+        private final long rows;
+        private final long skipped;
+        private final long bytes;
+        private final long nanos;
+
+        Result(long rows, long skipped, long bytes, long nanos) {
+            this.rows = rows;
+            this.skipped = skipped;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        // Lines that could not be parsed (bad date/amount or missing columns)
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public double getSeconds() {
+            return nanos / 1e9;
+        }
+
+        public double getRowsPerSecond() {
+            return nanos == 0 ? 0 : rows / getSeconds();
+        }
+
+        public String toString() {
+            return String.format("Imported %d row(s), skipped %d, %.1f MB in %.2f s (%.0f rows/sec)",
+                    rows, skipped, bytes / 1e6, getSeconds(), getRowsPerSecond());
+        }
+    }
+
+    // --------------------- Import ---------------------
+    public Result importFile(Path file, Main.BudgetManager budget) throws IOException {
+        return importFile(file, budget, null);
+    }
+
+    // progress (optional) is called after each round with the number of rows imported so far.
+    // The budget's save lock is held throughout, so a GUI must not read the budget until
+    // this returns (see ExpenseTableModel.holdRows).
+    public Result importFile(Path file, Main.BudgetManager budget, LongConsumer progress) throws IOException {
+        Result[] result = new Result[1];
+        budget.importAndSave(sink -> result[0] = parse(file, progress, sink));
+        return result[0];
+    }
+
+    private Result parse(Path file, LongConsumer progress, Consumer<ExpenseStore> sink) throws IOException {
+        long startTime = System.nanoTime();
+        long rows = 0;
+        long skipped = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Segment[] segments = new Segment[threads];
+        for (int i = 0; i < threads; i++) {
+            segments[i] = new Segment();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = hasHeader ? skipLine(channel, 0, size) : 0;
+
+            while (position < size) {
+                long roundEnd = Math.min(size, position + (long) WINDOW * threads);
+                long[] bounds = splitRound(channel, position, roundEnd, size);
+
+                List<Callable<Segment>> tasks = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    Segment segment = segments[i];
+                    segment.reset(channel, bounds[i], bounds[i + 1]);
+                    tasks.add(segment);
+                }
+                for (Future<Segment> done : pool.invokeAll(tasks)) {
+                    done.get();
+                }
+
+                // Append in file order
+                for (Segment segment : segments) {
+                    sink.accept(segment.store);
+                    rows += segment.store.size();
+                    skipped += segment.skipped;
+                }
+                position = bounds[threads];
+                if (progress != null) {
+                    progress.accept(rows);
+                }
+            }
+            return new Result(rows, skipped, size, System.nanoTime() - startTime);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Import failed: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Splits [start, roundEnd) into one range per thread, moving every boundary to
+    // just after a newline so no line is cut in half
+    private long[] splitRound(FileChannel channel, long start, long roundEnd, long size) throws IOException {
+        long[] bounds = new long[threads + 1];
+        bounds[0] = start;
+        long step = (roundEnd - start) / threads;
+        for (int i = 1; i < threads; i++) {
+            long target = Math.max(bounds[i - 1], start + step * i);
+            bounds[i] = target >= size ? size : skipLine(channel, target, size);
+        }
+        bounds[threads] = roundEnd >= size ? size : skipLine(channel, Math.max(bounds[threads - 1], roundEnd), size);
+        return bounds;
+    }
+
+    // Returns the offset just after the next '\n' at or after position
+    private static long skipLine(FileChannel channel, long position, long size) throws IOException {
+        long length = Math.min(MAX_LINE, size - position);
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        for (int i = 0; i < length; i++) {
+            if (buf.get(i) == '\n') {
+                return position + i + 1;
+            }
+        }
+        if (position + length == size) {
+            return size;
+        }
+        throw new IOException("Line longer than " + MAX_LINE + " bytes at offset " + position);
+    }
+
+    // --------------------- Per-thread Parser ---------------------
+    private class Segment implements Callable<Segment> {
+        ExpenseStore store = new ExpenseStore();
+        long skipped;
+        private FileChannel channel;
+        private long from;
+        private long to;
+
+        // Category names seen by this thread, keyed by their raw bytes
+        private byte[][] names = new byte[64][];
+        private int[] nameIds = new int[64];
+        private int nameCount = 0;
+
+        // Field boundaries of the current line
+        private final int[] fieldStart = new int[3];
+        private final int[] fieldEnd = new int[3];
+
+        void reset(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.store = new ExpenseStore();
+            this.skipped = 0;
+            Arrays.fill(names, null);
+            nameCount = 0;
+        }
+
+        @Override
+        public Segment call() throws IOException {
+            if (to <= from) {
+                return this;
+            }
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            int length = (int) (to - from);
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (buf.get(i) == '\n') {
+                    parseLine(buf, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart < length) {
+                parseLine(buf, lineStart, length); // last line without a trailing newline
+            }
+            return this;
+        }
+
+        private void parseLine(MappedByteBuffer buf, int start, int end) {
+            if (end > start && buf.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end == start) {
+                return; // blank line
+            }
+            if (!splitFields(buf, start, end)) {
+                skipped++;
+                return;
+            }
+            int day = parseEpochDay(buf, fieldStart[0], fieldEnd[0]);
+            long cents = parseCents(buf, fieldStart[2], fieldEnd[2]);
+            if (day == Integer.MIN_VALUE || cents == Money.INVALID) {
+                skipped++;
+                return;
+            }
+            store.add(categoryFor(buf, fieldStart[1], fieldEnd[1]), cents, day);
+        }
+
+        // Finds the date, category and amount fields; quoted fields may contain the delimiter
+        private boolean splitFields(MappedByteBuffer buf, int start, int end) {
+            int found = 0;
+            int field = 0;
+            int i = start;
+            while (i <= end) {
+                int fStart = i;
+                int fEnd;
+                if (i < end && buf.get(i) == '"') {
+                    fStart = i + 1;
+                    i = fStart;
+                    while (i < end && !(buf.get(i) == '"' && (i + 1 == end || buf.get(i + 1) != '"'))) {
+                        i += buf.get(i) == '"' ? 2 : 1;
+                    }
+                    fEnd = i;
+                    while (i < end && buf.get(i) != delimiter) {
+                        i++;
+                    }
+                } else {
+                    while (i < end && buf.get(i) != delimiter) {
+                        i++;
+                    }
+                    fEnd = i;
+                }
+                int slot = field == dateColumn ? 0 : field == categoryColumn ? 1 : field == amountColumn ? 2 : -1;
+                if (slot >= 0) {
+                    fieldStart[slot] = fStart;
+                    fieldEnd[slot] = fEnd;
+                    found++;
+                }
+                field++;
+                i++; // skip the delimiter
+            }
+            return found == 3;
+        }
+
+        private int categoryFor(MappedByteBuffer buf, int start, int end) {
+            while (start < end && buf.get(start) == ' ') {
+                start++;
+            }
+            while (end > start && buf.get(end - 1) == ' ') {
+                end--;
+            }
+            int length = end - start;
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buf.get(i);
+            }
+            int mask = names.length - 1;
+            int slot = hash & mask;
+            while (names[slot] != null) {
+                if (sameBytes(names[slot], buf, start, length)) {
+                    return nameIds[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            // First time this thread sees the name: build its String once
+            byte[] key = new byte[length];
+            buf.get(start, key);
+            String name = new String(key, StandardCharsets.UTF_8).replace("\"\"", "\"");
+            int id = store.categoryId(name);
+            names[slot] = key;
+            nameIds[slot] = id;
+            if (++nameCount * 2 > names.length) {
+                growNames();
+            }
+            return id;
+        }
+
+        private void growNames() {
+            byte[][] oldNames = names;
+            int[] oldIds = nameIds;
+            names = new byte[oldNames.length * 2][];
+            nameIds = new int[oldNames.length * 2];
+            int mask = names.length - 1;
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] != null) {
+                    int slot = Arrays.hashCode(oldNames[i]) & mask;
+                    while (names[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    names[slot] = oldNames[i];
+                    nameIds[slot] = oldIds[i];
+                }
+            }
+        }
+    }
+
+    private static boolean sameBytes(byte[] key, MappedByteBuffer buf, int start, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buf.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --------------------- Allocation-free Parsers ---------------------
+    // Parses YYYY-MM-DD or MM/DD/YYYY into an epoch day; Integer.MIN_VALUE if invalid
+    static int parseEpochDay(MappedByteBuffer buf, int start, int end) {
+        while (start < end && buf.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && buf.get(end - 1) == ' ') {
+            end--;
+        }
+        int year, month, day;
+        if (end - start == 10 && buf.get(start + 4) == '-' && buf.get(start + 7) == '-') {
+            year = digits(buf, start, 4);
+            month = digits(buf, start + 5, 2);
+            day = digits(buf, start + 8, 2);
+        } else if (end - start == 10 && buf.get(start + 2) == '/' && buf.get(start + 5) == '/') {
+            month = digits(buf, start, 2);
+            day = digits(buf, start + 3, 2);
+            year = digits(buf, start + 6, 4);
+        } else {
+            return Integer.MIN_VALUE;
+        }
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return Integer.MIN_VALUE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    private static int digits(MappedByteBuffer buf, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    // Same result as LocalDate.of(year, month, day).toEpochDay() (days-from-civil)
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Parses amounts like 12.50, -3, "1,234.56", $9.99 or (45.00) for a negative
+    // straight into cents (same rules as Money.parse); Money.INVALID if invalid
+    static long parseCents(MappedByteBuffer buf, int start, int end) {
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = -1;
+        boolean negative = false;
+        for (int i = start; i < end; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                if (digitCount == 18) {
+                    return Money.INVALID;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digitCount++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b == '-' || b == '(') {
+                negative = true;
+            } else if (b != ',' && b != '$' && b != ' ' && b != ')' && b != '+') {
+                return Money.INVALID;
+            }
+        }
+        if (digitCount == 0) {
+            return Money.INVALID;
+        }
+        return Money.toCents(mantissa, fractionDigits, negative);
+    }
+}
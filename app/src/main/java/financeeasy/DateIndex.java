@@ -0,0 +1,212 @@
+package financeeasy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeMap;
+
+// --------------------- Date Index ---------------------
+// Day-bucketed spending totals (in cents) for answering date-range questions without
+// scanning every expense. Each day is one bucket; buckets are kept in Fenwick
+// trees (binary indexed prefix sums), one for the overall total and one per
+// category, so adding an expense and summing any date range are both O(log days).
+//
+// Days are grouped into aligned blocks of BLOCK_DAYS, each with its own dense trees,
+// made the first time an expense falls in the block and kept in a sorted map. A stray
+// date far from the rest (a typo like 0202-03-01) costs one more block instead of
+// stretching every tree over the gap. A range sum is a tree query in the two end
+// blocks plus the stored totals of the whole blocks between them.
+//
+// copy() shares every block with the copy (O(blocks) references, like ExpenseStore.fork):
+// a block belongs to the index that made it, and either side copies a block it does
+// not own the first time it adds to it.
+public class DateIndex {
+    private static final int BLOCK_DAYS = 512;
+
+    private final TreeMap<Integer, Block> blocks = new TreeMap<>(); // by epochDay / BLOCK_DAYS
+    private int firstDay = Integer.MAX_VALUE;  // earliest and latest day ever added
+    private int lastDay = Integer.MIN_VALUE;
+
+    // --------------------- One Block ---------------------
+    private static final class Block {
+        final int startDay;
+        DateIndex owner;                        // null once shared by copy()
+        long[] totals = new long[BLOCK_DAYS + 1];
+        long[][] byCategory = new long[0][];
+        long total;                             // whole-block sums, for ranges that cover it
+        long[] categoryTotals = new long[0];
+
+        Block(int startDay, DateIndex owner) {
+            this.startDay = startDay;
+            this.owner = owner;
+        }
+
+        void add(int epochDay, int categoryId, long cents) {
+            if (categoryId >= byCategory.length) {
+                int newLength = Math.max(categoryId + 1, byCategory.length * 2);
+                byCategory = Arrays.copyOf(byCategory, newLength);
+                categoryTotals = Arrays.copyOf(categoryTotals, newLength);
+            }
+            if (byCategory[categoryId] == null) {
+                byCategory[categoryId] = new long[BLOCK_DAYS + 1];
+            }
+            int bucket = epochDay - startDay + 1; // Fenwick trees are 1-based
+            addAt(totals, bucket, cents);
+            addAt(byCategory[categoryId], bucket, cents);
+            total += cents;
+            categoryTotals[categoryId] += cents;
+        }
+
+        long sum(int fromDay, int toDay) {
+            return rangeSum(totals, total, fromDay, toDay);
+        }
+
+        long sum(int categoryId, int fromDay, int toDay) {
+            if (categoryId >= byCategory.length || byCategory[categoryId] == null) {
+                return 0;
+            }
+            return rangeSum(byCategory[categoryId], categoryTotals[categoryId], fromDay, toDay);
+        }
+
+        private long rangeSum(long[] tree, long whole, int fromDay, int toDay) {
+            // Compared before subtracting so open-ended ranges (Integer.MIN/MAX_VALUE) can't overflow
+            int from = fromDay <= startDay ? 0 : fromDay - startDay;
+            int to = toDay >= startDay + BLOCK_DAYS - 1 ? BLOCK_DAYS - 1 : toDay - startDay;
+            if (from == 0 && to == BLOCK_DAYS - 1) {
+                return whole;
+            }
+            return from > to ? 0 : prefix(tree, to + 1) - prefix(tree, from);
+        }
+
+        Block copy(DateIndex newOwner) {
+            Block copy = new Block(startDay, newOwner);
+            copy.totals = totals.clone();
+            copy.byCategory = new long[byCategory.length][];
+            for (int id = 0; id < byCategory.length; id++) {
+                copy.byCategory[id] = byCategory[id] == null ? null : byCategory[id].clone();
+            }
+            copy.total = total;
+            copy.categoryTotals = categoryTotals.clone();
+            return copy;
+        }
+
+        long estimatedBytes() {
+            long trees = 1;
+            for (long[] tree : byCategory) {
+                if (tree != null) {
+                    trees++;
+                }
+            }
+            return trees * (BLOCK_DAYS + 1) * Long.BYTES + byCategory.length * 16L;
+        }
+    }
+
+    // --------------------- Updates ---------------------
+    public void add(int epochDay, int categoryId, long cents) {
+        int key = Math.floorDiv(epochDay, BLOCK_DAYS);
+        Block block = blocks.get(key);
+        if (block == null) {
+            block = new Block(key * BLOCK_DAYS, this);
+            blocks.put(key, block);
+        } else if (block.owner != this) {
+            block = block.copy(this); // shared with a copy
+            blocks.put(key, block);
+        }
+        block.add(epochDay, categoryId, cents);
+        firstDay = Math.min(firstDay, epochDay);
+        lastDay = Math.max(lastDay, epochDay);
+    }
+
+    // Copy-on-write copy: O(blocks) now, one block copy per block later added to on either side
+    public DateIndex copy() {
+        DateIndex copy = new DateIndex();
+        for (Block block : blocks.values()) {
+            block.owner = null;
+        }
+        copy.blocks.putAll(blocks);
+        copy.firstDay = firstDay;
+        copy.lastDay = lastDay;
+        return copy;
+    }
+
+    public void clear() {
+        blocks.clear();
+        firstDay = Integer.MAX_VALUE;
+        lastDay = Integer.MIN_VALUE;
+    }
+
+    public boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    // Rough heap footprint of the trees
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Block block : blocks.values()) {
+            bytes += block.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    // --------------------- Range Queries ---------------------
+    // Total spent from fromDay to toDay, both inclusive
+    public long sum(int fromDay, int toDay) {
+        long sum = 0;
+        for (Block block : blocksBetween(fromDay, toDay)) {
+            sum += block.sum(fromDay, toDay);
+        }
+        return sum;
+    }
+
+    public long sum(int categoryId, int fromDay, int toDay) {
+        long sum = 0;
+        for (Block block : blocksBetween(fromDay, toDay)) {
+            sum += block.sum(categoryId, fromDay, toDay);
+        }
+        return sum;
+    }
+
+    // Per-category totals for the range; index i of the result is category i
+    public long[] sumByCategory(int fromDay, int toDay, int categoryCount) {
+        long[] result = new long[categoryCount];
+        for (Block block : blocksBetween(fromDay, toDay)) {
+            int categories = Math.min(categoryCount, block.byCategory.length);
+            for (int id = 0; id < categories; id++) {
+                result[id] += block.sum(id, fromDay, toDay);
+            }
+        }
+        return result;
+    }
+
+    private Iterable<Block> blocksBetween(int fromDay, int toDay) {
+        int fromKey = Math.floorDiv(fromDay, BLOCK_DAYS);
+        int toKey = Math.floorDiv(toDay, BLOCK_DAYS);
+        if (fromKey > toKey) {
+            return Collections.emptyList();
+        }
+        return blocks.subMap(fromKey, true, toKey, true).values();
+    }
+
+    // --------------------- Fenwick Tree ---------------------
+    private static void addAt(long[] tree, int i, long cents) {
+        for (; i < tree.length; i += i & -i) {
+            tree[i] += cents;
+        }
+    }
+
+    // Sum of buckets 1..i
+    private static long prefix(long[] tree, int i) {
+        long sum = 0;
+        for (; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
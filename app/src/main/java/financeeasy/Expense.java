@@ -0,0 +1,62 @@
+package financeeasy;
+
+import java.time.LocalDate;
+
+// --------------------- Expense Class ---------------------
+public class Expense {
+    private String category;
+    private long cents;
+    private String currency;
+    private LocalDate date;
+
+    public Expense(String category, double amount, LocalDate date) {
+        this(category, Money.fromDollars(amount), Money.BASE_CURRENCY, date);
+    }
+
+    private Expense(String category, long cents, String currency, LocalDate date) {
+        this.category = category;
+        this.cents = cents;
+        this.currency = currency;
+        this.date = date;
+    }
+
+    public static Expense ofCents(String category, long cents, LocalDate date) {
+        return new Expense(category, cents, Money.BASE_CURRENCY, date);
+    }
+
+    // Amount in hundredths of `currency` (an ISO code such as "EUR")
+    public static Expense ofCents(String category, long cents, String currency, LocalDate date) {
+        return new Expense(category, cents, Money.currencyCode(currency), date);
+    }
+
+    // Currency already checked (e.g. read back from a store's dictionary)
+    static Expense ofStoredCents(String category, long cents, String currency, LocalDate date) {
+        return new Expense(category, cents, currency, date);
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public double getAmount() {
+        return Money.toDollars(cents);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String toString() {
+        StringBuilder out = new StringBuilder(48);
+        out.append(date).append(" - ").append(category).append(": ").append(Money.symbol(currency));
+        return Money.append(out, cents).toString();
+    }
+}
@@ -0,0 +1,388 @@
+package financeeasy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// --------------------- Expense Distribution ---------------------
+// Expense-size statistics kept up to date as expenses are added and removed, so
+// quantile and top-K queries never sort or copy the ledger:
+// - a QuantileSketch per category for all time, and per category per month
+// - the MAX_TOP largest expenses of each month, in a bounded min-heap
+//
+// Quantiles are within the sketch's relative accuracy (1%) of the exact value. The
+// top-K lists are exact. Removing an expense that was in its month's list leaves a
+// gap that only a rescan can fill, so that month is marked stale and rebuilt from
+// the store (one pass, for all stale months at once) the next time it is queried.
+// Months are numbered year * 12 + month - 1.
+//
+// copy() shares the sketches and months with the copy (O(categories + months)
+// references). Either side copies an all-time sketch or a month it does not own
+// before changing it, so a copy costs one month's sketches per month written to.
+public class ExpenseDistribution {
+    public static final int MAX_TOP = 32;
+
+    private QuantileSketch[] categorySketches = new QuantileSketch[0];
+    private boolean[] ownedSketches = new boolean[0]; // false if the sketch may be shared with a copy
+    private final HashMap<Integer, Month> months = new HashMap<>();
+
+    // Most expenses in a row land in the same month; skip the date maths for them
+    private int lastDay = Integer.MIN_VALUE;
+    private Month lastMonth;
+
+    private static final class Month {
+        ExpenseDistribution owner;  // null once shared by copy()
+        QuantileSketch[] sketches = new QuantileSketch[0];
+        TopList top = new TopList(MAX_TOP);
+        long count = 0;
+        boolean stale = false;
+
+        Month(ExpenseDistribution owner) {
+            this.owner = owner;
+        }
+
+        Month copy(ExpenseDistribution newOwner) {
+            Month copy = new Month(newOwner);
+            copy.sketches = new QuantileSketch[sketches.length];
+            for (int id = 0; id < sketches.length; id++) {
+                copy.sketches[id] = sketches[id] == null ? null : sketches[id].copy();
+            }
+            copy.top = top.copy();
+            copy.count = count;
+            copy.stale = stale;
+            return copy;
+        }
+    }
+
+    // --------------------- Top List ---------------------
+    // Min-heap of at most `capacity` (cents, day, category) rows; the root is the smallest
+    private static final class TopList {
+        final long[] cents;
+        final int[] days;
+        final int[] categories;
+        int size = 0;
+
+        TopList(int capacity) {
+            cents = new long[capacity];
+            days = new int[capacity];
+            categories = new int[capacity];
+        }
+
+        void offer(long value, int day, int categoryId) {
+            if (size < cents.length) {
+                set(size, value, day, categoryId);
+                siftUp(size++);
+            } else if (value > cents[0]) {
+                set(0, value, day, categoryId);
+                siftDown(0);
+            }
+        }
+
+        // Takes out one matching row; false if it was not in the list
+        boolean remove(long value, int day, int categoryId) {
+            if (size == 0 || value < cents[0]) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (cents[i] == value && days[i] == day && categories[i] == categoryId) {
+                    size--;
+                    if (i < size) {
+                        set(i, cents[size], days[size], categories[size]);
+                        siftDown(i);
+                        siftUp(i);
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        TopList copy() {
+            TopList copy = new TopList(cents.length);
+            System.arraycopy(cents, 0, copy.cents, 0, size);
+            System.arraycopy(days, 0, copy.days, 0, size);
+            System.arraycopy(categories, 0, copy.categories, 0, size);
+            copy.size = size;
+            return copy;
+        }
+
+        private void set(int i, long value, int day, int categoryId) {
+            cents[i] = value;
+            days[i] = day;
+            categories[i] = categoryId;
+        }
+
+        private void swap(int i, int j) {
+            long c = cents[i];
+            int d = days[i];
+            int k = categories[i];
+            set(i, cents[j], days[j], categories[j]);
+            set(j, c, d, k);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (cents[parent] <= cents[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && cents[left] < cents[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && cents[right] < cents[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+    }
+
+    // --------------------- Updates ---------------------
+    public void add(int epochDay, int categoryId, long cents) {
+        Month month = month(epochDay);
+        sketch(month, categoryId).add(cents);
+        allTime(categoryId).add(cents);
+        month.top.offer(cents, epochDay, categoryId);
+        month.count++;
+    }
+
+    // Undoes an earlier add of the same expense
+    public void remove(int epochDay, int categoryId, long cents) {
+        Month month = month(epochDay);
+        sketch(month, categoryId).remove(cents);
+        allTime(categoryId).remove(cents);
+        month.count--;
+        if (month.top.remove(cents, epochDay, categoryId) && month.count > month.top.size) {
+            month.stale = true; // a row outside the list may belong in it now
+        }
+    }
+
+    public void clear() {
+        categorySketches = new QuantileSketch[0];
+        ownedSketches = new boolean[0];
+        months.clear();
+        lastDay = Integer.MIN_VALUE;
+        lastMonth = null;
+    }
+
+    // Copy-on-write copy; see the class comment
+    public ExpenseDistribution copy() {
+        ExpenseDistribution copy = new ExpenseDistribution();
+        copy.categorySketches = categorySketches.clone();
+        copy.ownedSketches = new boolean[ownedSketches.length];
+        Arrays.fill(ownedSketches, false);
+        for (Month month : months.values()) {
+            month.owner = null;
+        }
+        copy.months.putAll(months);
+        lastDay = Integer.MIN_VALUE; // the cached month is shared now
+        lastMonth = null;
+        return copy;
+    }
+
+    // The month to change, copied first if it is shared
+    private Month month(int epochDay) {
+        if (epochDay != lastDay) {
+            lastMonth = ownMonth(monthOf(epochDay));
+            lastDay = epochDay;
+        }
+        return lastMonth;
+    }
+
+    private Month ownMonth(int key) {
+        Month month = months.get(key);
+        if (month == null) {
+            month = new Month(this);
+            months.put(key, month);
+        } else if (month.owner != this) {
+            month = month.copy(this);
+            months.put(key, month);
+        }
+        return month;
+    }
+
+    private QuantileSketch sketch(Month month, int categoryId) {
+        if (categoryId >= month.sketches.length) {
+            month.sketches = Arrays.copyOf(month.sketches, Math.max(categoryId + 1, month.sketches.length * 2));
+        }
+        if (month.sketches[categoryId] == null) {
+            month.sketches[categoryId] = new QuantileSketch();
+        }
+        return month.sketches[categoryId];
+    }
+
+    private QuantileSketch allTime(int categoryId) {
+        if (categoryId >= categorySketches.length) {
+            int newLength = Math.max(categoryId + 1, categorySketches.length * 2);
+            categorySketches = Arrays.copyOf(categorySketches, newLength);
+            ownedSketches = Arrays.copyOf(ownedSketches, newLength);
+        }
+        if (categorySketches[categoryId] == null) {
+            categorySketches[categoryId] = new QuantileSketch();
+        } else if (!ownedSketches[categoryId]) {
+            categorySketches[categoryId] = categorySketches[categoryId].copy();
+        }
+        ownedSketches[categoryId] = true;
+        return categorySketches[categoryId];
+    }
+
+    public static int monthOf(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    // --------------------- Queries ---------------------
+    // All-time sketch for one category (categoryId < 0 means every category), as a
+    // copy the caller may merge into
+    public QuantileSketch sketch(int categoryId) {
+        ArrayList<QuantileSketch> parts = new ArrayList<>();
+        for (int id = 0; id < categorySketches.length; id++) {
+            if (categorySketches[id] != null && (categoryId < 0 || id == categoryId)) {
+                parts.add(categorySketches[id]);
+            }
+        }
+        return merge(parts);
+    }
+
+    // Sketch for one category (or every category, if < 0) over months fromMonth..toMonth
+    // inclusive; the per-month sketches are merged in parallel
+    public QuantileSketch sketch(int categoryId, int fromMonth, int toMonth) {
+        ArrayList<QuantileSketch> parts = new ArrayList<>();
+        for (Month month : monthsBetween(fromMonth, toMonth)) {
+            for (int id = 0; id < month.sketches.length; id++) {
+                if (month.sketches[id] != null && (categoryId < 0 || id == categoryId)) {
+                    parts.add(month.sketches[id]);
+                }
+            }
+        }
+        return merge(parts);
+    }
+
+    private static QuantileSketch merge(List<QuantileSketch> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0).copy();
+        }
+        return QuantileSketch.mergeAll(parts, QuantileSketch.DEFAULT_ACCURACY);
+    }
+
+    // The k (at most MAX_TOP) largest expenses in months fromMonth..toMonth, largest
+    // first, as row values (the store's row indexes shift on removal), in the base
+    // currency; toBase converts other rows (null if the ledger has no exchange rates)
+    public List<Expense> top(ExpenseStore store, FxTable.Converter toBase, int fromMonth, int toMonth, int k) {
+        if (k < 0 || k > MAX_TOP) {
+            throw new IllegalArgumentException("k must be between 0 and " + MAX_TOP + ": " + k);
+        }
+        List<Month> selected = monthsBetween(fromMonth, toMonth);
+        for (Month month : selected) {
+            if (month.stale) {
+                rebuildStale(store, toBase);
+                selected = monthsBetween(fromMonth, toMonth); // rebuilt months may be new copies
+                break;
+            }
+        }
+        TopList merged = new TopList(k);
+        if (k > 0) {
+            for (Month month : selected) {
+                for (int i = 0; i < month.top.size; i++) {
+                    merged.offer(month.top.cents[i], month.top.days[i], month.top.categories[i]);
+                }
+            }
+        }
+        Expense[] result = new Expense[merged.size];
+        for (int i = result.length - 1; i >= 0; i--) {
+            // Pop the smallest into the back
+            result[i] = Expense.ofCents(store.getCategoryName(merged.categories[0]), merged.cents[0],
+                    LocalDate.ofEpochDay(merged.days[0]));
+            merged.size--;
+            if (merged.size > 0) {
+                merged.set(0, merged.cents[merged.size], merged.days[merged.size], merged.categories[merged.size]);
+                merged.siftDown(0);
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    private List<Month> monthsBetween(int fromMonth, int toMonth) {
+        ArrayList<Month> selected = new ArrayList<>();
+        if (toMonth - fromMonth < months.size()) {
+            for (int m = fromMonth; m <= toMonth; m++) {
+                Month month = months.get(m);
+                if (month != null) {
+                    selected.add(month);
+                }
+            }
+        } else {
+            for (Map.Entry<Integer, Month> entry : months.entrySet()) {
+                if (entry.getKey() >= fromMonth && entry.getKey() <= toMonth) {
+                    selected.add(entry.getValue());
+                }
+            }
+        }
+        return selected;
+    }
+
+    private void rebuildStale(ExpenseStore store, FxTable.Converter toBase) {
+        ArrayList<Integer> staleKeys = new ArrayList<>();
+        for (Map.Entry<Integer, Month> entry : months.entrySet()) {
+            if (entry.getValue().stale) {
+                staleKeys.add(entry.getKey());
+            }
+        }
+        for (int key : staleKeys) {
+            ownMonth(key).top.clear();
+        }
+        lastDay = Integer.MIN_VALUE; // ownMonth may have replaced the cached month
+        int day = Integer.MIN_VALUE;
+        Month month = null;
+        for (int i = 0; i < store.size(); i++) {
+            int epochDay = store.getEpochDay(i);
+            if (epochDay != day) {
+                month = months.get(monthOf(epochDay));
+                day = epochDay;
+            }
+            if (month != null && month.stale) {
+                long cents = toBase == null ? store.getCents(i) : toBase.convert(store.getCents(i), store.getCurrencyId(i), epochDay);
+                month.top.offer(cents, epochDay, store.getCategoryId(i));
+            }
+        }
+        for (int key : staleKeys) {
+            months.get(key).stale = false;
+        }
+    }
+
+    // Rough heap footprint of the sketches and lists
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (QuantileSketch sketch : categorySketches) {
+            bytes += sketch == null ? 0 : sketch.estimatedBytes();
+        }
+        for (Month month : months.values()) {
+            bytes += 64 + MAX_TOP * 16L;
+            for (QuantileSketch sketch : month.sketches) {
+                bytes += sketch == null ? 0 : sketch.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+}
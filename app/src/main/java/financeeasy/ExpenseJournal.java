@@ -0,0 +1,552 @@
+package financeeasy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// --------------------- Expense Journal ---------------------
+// Saves a BudgetManager to disk as a compact snapshot plus an append-only journal
+// of the changes made since that snapshot.
+//
+// Changes are buffered and written as one checksummed batch, followed by a single
+// fsync (group commit). A batch is committed when it holds batchSize records, when
+// the background flusher runs, or on close. If the process dies mid-write, the torn
+// batch fails its checksum on the next start and is cut off, so at most the last
+// uncommitted batch is lost.
+//
+// Every snapshotEvery records the whole ledger is written to a new snapshot and the
+// journal starts over. On startup the snapshot is memory-mapped and copied column by
+// column into the ExpenseStore, then only the journal tail is replayed.
+//
+// Amounts are stored as cents. Files from version 1, which stored doubles, are
+// still read and are rewritten in the current format straight after loading.
+// Version 3 snapshots add the currency dictionary and a one-byte currency column;
+// version 2 snapshots are read as all base currency. Expenses in the base currency
+// are journaled exactly as before, others with their own record types. Version 4
+// snapshots end with the recurring rules; older ones have none.
+public class ExpenseJournal implements Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x4645534E; // "FESN"
+    private static final int JOURNAL_MAGIC = 0x46454A32;  // "FEJ2"
+    private static final int LEGACY_JOURNAL_MAGIC = 0x46454A4E; // "FEJN", amounts as doubles
+    private static final int VERSION = 4;
+    private static final int CURRENCY_VERSION = 3;        // no recurring rules
+    private static final int CENTS_VERSION = 2;           // cents, no currencies
+    private static final int LEGACY_VERSION = 1;
+    private static final int JOURNAL_HEADER_SIZE = 12;    // magic + generation
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_REMOVE = 3;
+    private static final byte OP_INCOME = 4;
+    private static final byte OP_ADD_CURRENCY = 5;    // OP_ADD followed by a currency code
+    private static final byte OP_UPDATE_CURRENCY = 6; // OP_UPDATE followed by a currency code
+    private static final byte OP_ADD_RULE = 7;
+    private static final byte OP_REMOVE_RULE = 8;     // by index in the budget's rule list
+
+    private static final int RULE_BYTES = 2 + 8 + 1 + 4 + 4 + 4; // besides the category name
+    private static final int NO_END = Integer.MIN_VALUE;         // end day of a rule that never stops
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final int batchSize;
+    private final int snapshotEvery;
+
+    private FileChannel journal;
+    private long generation;
+    private Main.BudgetManager budget;
+    private boolean legacyJournal;  // journal being replayed stores amounts as doubles
+    private boolean needsRewrite;   // something was loaded from a version 1 file
+
+    // Records waiting for the next group commit
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private int pendingRecords = 0;
+    private int recordsSinceSnapshot = 0;
+    private final CRC32 crc = new CRC32();
+    private ScheduledExecutorService flusher;
+
+    public ExpenseJournal(Path directory) {
+        this(directory, 256, 100_000);
+    }
+
+    public ExpenseJournal(Path directory, int batchSize, int snapshotEvery) {
+        this.snapshotFile = directory.resolve("ledger.snapshot");
+        this.journalFile = directory.resolve("ledger.journal");
+        this.batchSize = batchSize;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    // ~/.financeeasy unless -Dfinanceeasy.dataDir is set
+    public static Path defaultDirectory() {
+        String dir = System.getProperty("financeeasy.dataDir");
+        if (dir != null) {
+            return Paths.get(dir);
+        }
+        return Paths.get(System.getProperty("user.home"), ".financeeasy");
+    }
+
+    // --------------------- Startup ---------------------
+    // Loads the saved ledger into an empty BudgetManager and starts journaling its changes.
+    // Called by BudgetManager.attachJournal.
+    synchronized void open(Main.BudgetManager target, long flushIntervalMillis) throws IOException {
+        Files.createDirectories(journalFile.getParent());
+        long snapshotGeneration = loadSnapshot(target);
+
+        journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long journalGeneration = readJournalGeneration();
+            if (journalGeneration == snapshotGeneration) {
+                replayJournal(target);
+            } else {
+                // Missing, or older than the snapshot (crash between snapshot and journal reset)
+                resetJournal(snapshotGeneration);
+            }
+            generation = snapshotGeneration;
+            budget = target;
+            if (needsRewrite) {
+                snapshot();
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Don't keep the file open for a ledger that failed to load
+            journal.close();
+            journal = null;
+            budget = null;
+            throw ex;
+        }
+
+        if (flushIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "expense-journal-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long loadSnapshot(Main.BudgetManager target) throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int version = map.getInt() == SNAPSHOT_MAGIC ? map.getInt() : -1;
+            if (version != VERSION && version != CURRENCY_VERSION && version != CENTS_VERSION && version != LEGACY_VERSION) {
+                throw new IOException("Not a FinanceEasy snapshot: " + snapshotFile);
+            }
+            boolean legacy = version == LEGACY_VERSION;
+            long snapshotGeneration = map.getLong();
+            long income = legacy ? Money.fromDollars(map.getDouble()) : map.getLong();
+            int rows = map.getInt();
+            int categoryCount = map.getInt();
+
+            ExpenseStore store = target.getStore();
+            for (int i = 0; i < categoryCount; i++) {
+                store.categoryId(readString(map));
+            }
+            boolean withCurrencies = version >= CURRENCY_VERSION;
+            if (withCurrencies) {
+                int currencyCount = map.getInt();
+                for (int i = 0; i < currencyCount; i++) {
+                    String code = readString(map);
+                    if (store.currencyId(code) != i) {
+                        throw new IOException("Snapshot base currency is " + code + ", not " + Money.BASE_CURRENCY);
+                    }
+                }
+            }
+
+            // Columns are laid out one after another, so each is a single bulk copy
+            int amountsAt = map.position();
+            int daysAt = amountsAt + rows * Long.BYTES;
+            int categoriesAt = daysAt + rows * Integer.BYTES;
+            int currenciesAt = categoriesAt + rows * Integer.BYTES;
+            LongBuffer cents = map.duplicate().position(amountsAt).slice().asLongBuffer();
+            if (legacy) {
+                cents = legacyCents(map.duplicate().position(amountsAt).slice().asDoubleBuffer(), rows);
+                needsRewrite = true;
+            }
+            store.addColumns(
+                    cents,
+                    map.duplicate().position(daysAt).slice().asIntBuffer(),
+                    map.duplicate().position(categoriesAt).slice().asIntBuffer(),
+                    withCurrencies ? map.duplicate().position(currenciesAt).slice() : null,
+                    rows);
+            if (version >= VERSION) {
+                map.position(currenciesAt + rows);
+                int ruleCount = map.getInt();
+                for (int i = 0; i < ruleCount; i++) {
+                    target.addRecurring(readRule(map));
+                }
+            }
+            target.setIncomeCents(income);
+            target.rebuildTotals();
+            return snapshotGeneration;
+        }
+    }
+
+    private static LongBuffer legacyCents(DoubleBuffer amounts, int rows) {
+        LongBuffer cents = LongBuffer.allocate(rows);
+        for (int i = 0; i < rows; i++) {
+            cents.put(Money.fromDollars(amounts.get(i)));
+        }
+        return cents.flip();
+    }
+
+    private long readJournalGeneration() throws IOException {
+        if (journal.size() < JOURNAL_HEADER_SIZE) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+        journal.read(header, 0);
+        header.flip();
+        int magic = header.getInt();
+        if (magic != JOURNAL_MAGIC && magic != LEGACY_JOURNAL_MAGIC) {
+            throw new IOException("Not a FinanceEasy journal: " + journalFile);
+        }
+        legacyJournal = magic == LEGACY_JOURNAL_MAGIC;
+        return header.getLong();
+    }
+
+    private void replayJournal(Main.BudgetManager target) throws IOException {
+        long size = journal.size();
+        MappedByteBuffer map = journal.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        map.position(JOURNAL_HEADER_SIZE);
+        int validEnd = JOURNAL_HEADER_SIZE;
+
+        while (map.remaining() >= 8) {
+            int length = map.getInt();
+            int checksum = map.getInt();
+            if (length <= 0 || length > map.remaining()) {
+                break; // torn write at the end of the file
+            }
+            ByteBuffer batch = map.slice();
+            batch.limit(length);
+            crc.reset();
+            crc.update(batch.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            while (batch.hasRemaining()) {
+                applyRecord(batch, target);
+                recordsSinceSnapshot++;
+            }
+            map.position(map.position() + length);
+            validEnd = map.position();
+        }
+
+        if (legacyJournal) {
+            needsRewrite = true; // replaced by a new snapshot once open() finishes
+            return;
+        }
+        if (validEnd < size) {
+            journal.truncate(validEnd);
+            journal.force(true);
+        }
+        journal.position(validEnd);
+    }
+
+    private void applyRecord(ByteBuffer in, Main.BudgetManager target) {
+        byte op = in.get();
+        switch (op) {
+            case OP_ADD -> {
+                String category = readString(in);
+                long cents = readCents(in);
+                int day = in.getInt();
+                target.addExpense(category, cents, day);
+            }
+            case OP_UPDATE -> {
+                int index = in.getInt();
+                String category = readString(in);
+                long cents = readCents(in);
+                int day = in.getInt();
+                target.updateExpense(index, category, cents, day);
+            }
+            case OP_ADD_CURRENCY -> {
+                String category = readString(in);
+                long cents = in.getLong();
+                int day = in.getInt();
+                target.addExpense(category, cents, readString(in), day);
+            }
+            case OP_UPDATE_CURRENCY -> {
+                int index = in.getInt();
+                String category = readString(in);
+                long cents = in.getLong();
+                int day = in.getInt();
+                target.updateExpense(index, category, cents, readString(in), day);
+            }
+            case OP_REMOVE -> target.removeExpense(in.getInt());
+            case OP_INCOME -> target.setIncomeCents(readCents(in));
+            case OP_ADD_RULE -> target.addRecurring(readRule(in));
+            case OP_REMOVE_RULE -> target.removeRecurring(in.getInt());
+            default -> throw new IllegalStateException("Unknown journal record type " + op);
+        }
+    }
+
+    private long readCents(ByteBuffer in) {
+        return legacyJournal ? Money.fromDollars(in.getDouble()) : in.getLong();
+    }
+
+    // --------------------- Appending ---------------------
+    synchronized void logAdd(String category, long cents, String currency, int epochDay) {
+        byte[] name = category.getBytes(StandardCharsets.UTF_8);
+        boolean base = currency.equals(Money.BASE_CURRENCY);
+        ensurePending(1 + 2 + name.length + 8 + 4 + 2 + currency.length());
+        pending.put(base ? OP_ADD : OP_ADD_CURRENCY).putShort((short) name.length).put(name).putLong(cents).putInt(epochDay);
+        if (!base) {
+            putCurrency(currency);
+        }
+        recordAdded();
+    }
+
+    synchronized void logUpdate(int index, String category, long cents, String currency, int epochDay) {
+        byte[] name = category.getBytes(StandardCharsets.UTF_8);
+        boolean base = currency.equals(Money.BASE_CURRENCY);
+        ensurePending(1 + 4 + 2 + name.length + 8 + 4 + 2 + currency.length());
+        pending.put(base ? OP_UPDATE : OP_UPDATE_CURRENCY).putInt(index).putShort((short) name.length).put(name)
+                .putLong(cents).putInt(epochDay);
+        if (!base) {
+            putCurrency(currency);
+        }
+        recordAdded();
+    }
+
+    // ISO codes are plain ASCII
+    private void putCurrency(String currency) {
+        pending.putShort((short) currency.length()).put(currency.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    synchronized void logRemove(int index) {
+        ensurePending(1 + 4);
+        pending.put(OP_REMOVE).putInt(index);
+        recordAdded();
+    }
+
+    synchronized void logIncome(long incomeCents) {
+        ensurePending(1 + 8);
+        pending.put(OP_INCOME).putLong(incomeCents);
+        recordAdded();
+    }
+
+    synchronized void logAddRule(RecurringRule rule) {
+        byte[] name = rule.getCategory().getBytes(StandardCharsets.UTF_8);
+        ensurePending(1 + name.length + RULE_BYTES);
+        putRule(pending.put(OP_ADD_RULE), name, rule);
+        recordAdded();
+    }
+
+    synchronized void logRemoveRule(int index) {
+        ensurePending(1 + 4);
+        pending.put(OP_REMOVE_RULE).putInt(index);
+        recordAdded();
+    }
+
+    // Category, cents, cadence, interval, start day, end day (NO_END if none)
+    private static void putRule(ByteBuffer out, byte[] name, RecurringRule rule) {
+        out.putShort((short) name.length).put(name).putLong(rule.getCents()).put((byte) rule.getCadence().ordinal())
+                .putInt(rule.getInterval()).putInt((int) rule.getStart().toEpochDay())
+                .putInt(rule.getEnd() == null ? NO_END : (int) rule.getEnd().toEpochDay());
+    }
+
+    private static RecurringRule readRule(ByteBuffer in) {
+        String category = readString(in);
+        long cents = in.getLong();
+        RecurringRule.Cadence cadence = RecurringRule.Cadence.values()[in.get()];
+        int interval = in.getInt();
+        LocalDate start = LocalDate.ofEpochDay(in.getInt());
+        int endDay = in.getInt();
+        return new RecurringRule(category, cents, cadence, interval, start, endDay == NO_END ? null : LocalDate.ofEpochDay(endDay));
+    }
+
+    private void ensurePending(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+    }
+
+    private void recordAdded() {
+        pendingRecords++;
+        if (pendingRecords >= batchSize) {
+            commit();
+        }
+    }
+
+    // --------------------- Group Commit ---------------------
+    // Writes all pending records as one checksummed batch and fsyncs once
+    public synchronized void commit() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            writeBatch();
+            if (recordsSinceSnapshot >= snapshotEvery) {
+                snapshot();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write expense journal", ex);
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        if (pendingRecords == 0) {
+            return;
+        }
+        pending.flip();
+        crc.reset();
+        crc.update(pending.duplicate());
+        ByteBuffer frameHeader = ByteBuffer.allocate(8);
+        frameHeader.putInt(pending.remaining()).putInt((int) crc.getValue()).flip();
+        ByteBuffer[] frame = {frameHeader, pending};
+        while (frameHeader.hasRemaining() || pending.hasRemaining()) {
+            journal.write(frame);
+        }
+        journal.force(false);
+
+        recordsSinceSnapshot += pendingRecords;
+        pending.clear();
+        pendingRecords = 0;
+    }
+
+    private void flushQuietly() {
+        try {
+            commit();
+        } catch (UncheckedIOException ex) {
+            System.err.println(ex.getMessage() + ": " + ex.getCause().getMessage());
+        }
+    }
+
+    // --------------------- Snapshots ---------------------
+    // Writes the whole ledger to a new snapshot and starts an empty journal after it
+    public synchronized void snapshot() throws IOException {
+        if (budget == null) {
+            return;
+        }
+        writeBatch();
+        long nextGeneration = generation + 1;
+        ExpenseStore store = budget.getStore();
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(256 * 1024);
+            buf.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(nextGeneration)
+                    .putLong(budget.getIncomeCents()).putInt(store.size()).putInt(store.getCategoryCount());
+            for (int id = 0; id < store.getCategoryCount(); id++) {
+                byte[] name = store.getCategoryName(id).getBytes(StandardCharsets.UTF_8);
+                if (buf.remaining() < 2 + name.length) {
+                    drain(out, buf);
+                }
+                buf.putShort((short) name.length).put(name);
+            }
+            if (buf.remaining() < 4 + store.getCurrencyCount() * 5) {
+                drain(out, buf);
+            }
+            buf.putInt(store.getCurrencyCount());
+            for (int id = 0; id < store.getCurrencyCount(); id++) {
+                byte[] code = store.getCurrencyCode(id).getBytes(StandardCharsets.US_ASCII);
+                buf.putShort((short) code.length).put(code);
+            }
+            int rows = store.size();
+            for (int i = 0; i < rows; i++) {
+                if (buf.remaining() < Long.BYTES) {
+                    drain(out, buf);
+                }
+                buf.putLong(store.getCents(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                if (buf.remaining() < Integer.BYTES) {
+                    drain(out, buf);
+                }
+                buf.putInt(store.getEpochDay(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                if (buf.remaining() < Integer.BYTES) {
+                    drain(out, buf);
+                }
+                buf.putInt(store.getCategoryId(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                if (!buf.hasRemaining()) {
+                    drain(out, buf);
+                }
+                buf.put((byte) store.getCurrencyId(i));
+            }
+            if (buf.remaining() < 4) {
+                drain(out, buf);
+            }
+            buf.putInt(budget.getRecurringRules().size());
+            for (RecurringRule rule : budget.getRecurringRules()) {
+                byte[] name = rule.getCategory().getBytes(StandardCharsets.UTF_8);
+                if (buf.remaining() < name.length + RULE_BYTES) {
+                    drain(out, buf);
+                }
+                putRule(buf, name, rule);
+            }
+            drain(out, buf);
+            out.force(true);
+        }
+        // Publish the snapshot first; a journal older than it is ignored on the next start
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        resetJournal(nextGeneration);
+        generation = nextGeneration;
+        recordsSinceSnapshot = 0;
+    }
+
+    private void resetJournal(long newGeneration) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+        header.putInt(JOURNAL_MAGIC).putLong(newGeneration).flip();
+        journal.truncate(0);
+        journal.write(header, 0);
+        journal.force(true);
+        journal.position(JOURNAL_HEADER_SIZE);
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        buf.clear();
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --------------------- Shutdown ---------------------
+    // Commits what is pending and leaves a fresh snapshot so the next start replays nothing
+    @Override
+    public synchronized void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        commit();
+        if (recordsSinceSnapshot > 0) {
+            snapshot();
+        }
+        journal.close();
+        journal = null;
+        budget = null;
+    }
+}
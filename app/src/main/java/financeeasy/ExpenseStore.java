@@ -0,0 +1,433 @@
+package financeeasy;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+// --------------------- Expense Store ---------------------
+// Keeps expenses as columns of primitives instead of one object per entry.
+// Each column is split into fixed-size chunks so growing the store never
+// copies the data that is already there, only the small array of chunk references.
+// Amounts are whole cents (see Money) in the row's currency.
+//
+// Currencies get a dictionary like categories, with id 0 the base currency
+// (Money.BASE_CURRENCY), and a one-byte column. A chunk whose rows are all in the
+// base currency has no currency chunk at all, so a single-currency ledger costs no
+// extra memory and its scans take the same path as before.
+//
+// fork() makes a copy-on-write copy: both stores share every existing chunk,
+// and whichever side writes to a shared chunk first gets its own copy of just
+// that chunk. Forking a million-row store copies ~250 chunk references.
+public class ExpenseStore {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 4096 rows per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private long[][] amounts = new long[4][];     // cents
+    private int[][] days = new int[4][];        // LocalDate stored as epoch day
+    private int[][] categories = new int[4][];  // id into the category dictionary
+    private byte[][] currencies = new byte[4][]; // id into the currency dictionary; null = all base
+    private boolean[] owned = new boolean[4];   // false if the chunk may be shared with a fork
+    private int size = 0;
+
+    // Category dictionary: every distinct name is stored once
+    private final HashMap<String, Integer> categoryIds = new HashMap<>();
+    private final ArrayList<String> categoryNames = new ArrayList<>();
+
+    // Currency dictionary; ids fit the byte column
+    static final int MAX_CURRENCIES = 256;
+    private final HashMap<String, Integer> currencyIds = new HashMap<>();
+    private final ArrayList<String> currencyCodes = new ArrayList<>();
+
+    public ExpenseStore() {
+        currencyId(Money.BASE_CURRENCY);
+    }
+
+    // --------------------- Adding ---------------------
+    public void add(Expense e) {
+        add(e.getCategory(), e.getCents(), e.getDate());
+    }
+
+    public void add(String category, long cents, LocalDate date) {
+        add(categoryId(category), cents, (int) date.toEpochDay());
+    }
+
+    public void add(int categoryId, long cents, int epochDay) {
+        add(categoryId, 0, cents, epochDay);
+    }
+
+    public void add(int categoryId, int currencyId, long cents, int epochDay) {
+        int chunk = size >>> CHUNK_SHIFT;
+        ensureChunk(chunk);
+        own(chunk);
+        int slot = size & CHUNK_MASK;
+        amounts[chunk][slot] = cents;
+        days[chunk][slot] = epochDay;
+        categories[chunk][slot] = categoryId;
+        setCurrency(chunk, slot, currencyId);
+        size++;
+    }
+
+    private void setCurrency(int chunk, int slot, int currencyId) {
+        if (currencies[chunk] != null) {
+            currencies[chunk][slot] = (byte) currencyId;
+        } else if (currencyId != 0) {
+            currencies[chunk] = new byte[CHUNK_SIZE];
+            currencies[chunk][slot] = (byte) currencyId;
+        }
+    }
+
+    // Bulk append straight from column buffers (used when loading a snapshot).
+    // Category and currency ids must already be in the dictionaries; a null
+    // currency column means every row is in the base currency.
+    public void addColumns(LongBuffer centsColumn, IntBuffer dayColumn, IntBuffer categoryColumn, int count) {
+        addColumns(centsColumn, dayColumn, categoryColumn, null, count);
+    }
+
+    public void addColumns(LongBuffer centsColumn, IntBuffer dayColumn, IntBuffer categoryColumn, ByteBuffer currencyColumn, int count) {
+        int remaining = count;
+        while (remaining > 0) {
+            int chunk = size >>> CHUNK_SHIFT;
+            ensureChunk(chunk);
+            own(chunk);
+            int slot = size & CHUNK_MASK;
+            int n = Math.min(remaining, CHUNK_SIZE - slot);
+            centsColumn.get(amounts[chunk], slot, n);
+            dayColumn.get(days[chunk], slot, n);
+            categoryColumn.get(categories[chunk], slot, n);
+            if (currencyColumn != null || currencies[chunk] != null) {
+                for (int i = 0; i < n; i++) {
+                    setCurrency(chunk, slot + i, currencyColumn == null ? 0 : currencyColumn.get() & 0xFF);
+                }
+            }
+            size += n;
+            remaining -= n;
+        }
+    }
+
+    private void ensureChunk(int chunk) {
+        if (chunk == amounts.length) {
+            int newLength = amounts.length * 2;
+            amounts = Arrays.copyOf(amounts, newLength);
+            days = Arrays.copyOf(days, newLength);
+            categories = Arrays.copyOf(categories, newLength);
+            currencies = Arrays.copyOf(currencies, newLength);
+            owned = Arrays.copyOf(owned, newLength);
+        }
+        if (amounts[chunk] == null) {
+            amounts[chunk] = new long[CHUNK_SIZE];
+            days[chunk] = new int[CHUNK_SIZE];
+            categories[chunk] = new int[CHUNK_SIZE];
+            owned[chunk] = true;
+        }
+    }
+
+    // Copies a chunk that may be shared with a fork before it is written
+    private void own(int chunk) {
+        if (!owned[chunk]) {
+            amounts[chunk] = amounts[chunk].clone();
+            days[chunk] = days[chunk].clone();
+            categories[chunk] = categories[chunk].clone();
+            if (currencies[chunk] != null) {
+                currencies[chunk] = currencies[chunk].clone();
+            }
+            owned[chunk] = true;
+        }
+    }
+
+    // --------------------- Forking ---------------------
+    // Copy-on-write copy: O(chunks) now, one chunk copy per chunk later written on either side
+    public ExpenseStore fork() {
+        ExpenseStore copy = new ExpenseStore();
+        copy.amounts = amounts.clone();
+        copy.days = days.clone();
+        copy.categories = categories.clone();
+        copy.currencies = currencies.clone();
+        copy.owned = new boolean[owned.length];
+        copy.size = size;
+        copy.categoryIds.putAll(categoryIds);
+        copy.categoryNames.addAll(categoryNames);
+        copy.currencyIds.putAll(currencyIds);
+        copy.currencyCodes.clear();
+        copy.currencyCodes.addAll(currencyCodes);
+        Arrays.fill(owned, false);
+        return copy;
+    }
+
+    // --------------------- Editing ---------------------
+    public void set(int index, int categoryId, long cents, int epochDay) {
+        set(index, categoryId, 0, cents, epochDay);
+    }
+
+    public void set(int index, int categoryId, int currencyId, long cents, int epochDay) {
+        checkIndex(index);
+        int chunk = index >>> CHUNK_SHIFT;
+        int slot = index & CHUNK_MASK;
+        own(chunk);
+        amounts[chunk][slot] = cents;
+        days[chunk][slot] = epochDay;
+        categories[chunk][slot] = categoryId;
+        setCurrency(chunk, slot, currencyId);
+    }
+
+    // Removes one row and shifts the rows after it down, keeping insertion order
+    public void remove(int index) {
+        checkIndex(index);
+        int last = size - 1;
+        int chunk = index >>> CHUNK_SHIFT;
+        int slot = index & CHUNK_MASK;
+        int lastChunk = last >>> CHUNK_SHIFT;
+        while (chunk <= lastChunk) {
+            own(chunk);
+            int end = chunk == lastChunk ? (last & CHUNK_MASK) : CHUNK_MASK;
+            int moved = end - slot;
+            System.arraycopy(amounts[chunk], slot + 1, amounts[chunk], slot, moved);
+            System.arraycopy(days[chunk], slot + 1, days[chunk], slot, moved);
+            System.arraycopy(categories[chunk], slot + 1, categories[chunk], slot, moved);
+            if (currencies[chunk] != null) {
+                System.arraycopy(currencies[chunk], slot + 1, currencies[chunk], slot, moved);
+            }
+            if (chunk < lastChunk) {
+                // Pull the first row of the next chunk into the freed last slot
+                amounts[chunk][CHUNK_MASK] = amounts[chunk + 1][0];
+                days[chunk][CHUNK_MASK] = days[chunk + 1][0];
+                categories[chunk][CHUNK_MASK] = categories[chunk + 1][0];
+                setCurrency(chunk, CHUNK_MASK, currencies[chunk + 1] == null ? 0 : currencies[chunk + 1][0]);
+            }
+            chunk++;
+            slot = 0;
+        }
+        size--;
+    }
+
+    // Drops every row from newSize on, e.g. to undo a bulk append that could not be saved
+    public void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Size: " + newSize + ", current size: " + size);
+        }
+        size = newSize;
+    }
+
+    // --------------------- Category Dictionary ---------------------
+    // Returns the id for a category name, adding it to the dictionary if it is new
+    public int categoryId(String category) {
+        Integer id = categoryIds.get(category);
+        if (id == null) {
+            id = categoryNames.size();
+            categoryIds.put(category, id);
+            categoryNames.add(category);
+        }
+        return id;
+    }
+
+    // Returns the id for a category name, or -1 if it has never been used
+    public int findCategoryId(String category) {
+        Integer id = categoryIds.get(category);
+        return id == null ? -1 : id;
+    }
+
+    public String getCategoryName(int categoryId) {
+        return categoryNames.get(categoryId);
+    }
+
+    public int getCategoryCount() {
+        return categoryNames.size();
+    }
+
+    // --------------------- Currency Dictionary ---------------------
+    // Returns the id for an ISO currency code, adding it to the dictionary if it is new
+    public int currencyId(String currency) {
+        Integer id = currencyIds.get(currency);
+        if (id == null) {
+            if (currencyCodes.size() == MAX_CURRENCIES) {
+                throw new IllegalArgumentException("A ledger can hold at most " + MAX_CURRENCIES + " currencies");
+            }
+            id = currencyCodes.size();
+            currencyIds.put(currency, id);
+            currencyCodes.add(currency);
+        }
+        return id;
+    }
+
+    public String getCurrencyCode(int currencyId) {
+        return currencyCodes.get(currencyId);
+    }
+
+    public int getCurrencyCount() {
+        return currencyCodes.size();
+    }
+
+    // True if any row is in a currency other than the base currency
+    public boolean hasForeignCurrency() {
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            byte[] chunk = currencies[start >>> CHUNK_SHIFT];
+            if (chunk != null) {
+                int end = Math.min(CHUNK_SIZE, size - start);
+                for (int i = 0; i < end; i++) {
+                    if (chunk[i] != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // --------------------- Column Access ---------------------
+    public int size() {
+        return size;
+    }
+
+    public long getCents(int index) {
+        checkIndex(index);
+        return amounts[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public double getAmount(int index) {
+        return Money.toDollars(getCents(index));
+    }
+
+    public int getEpochDay(int index) {
+        checkIndex(index);
+        return days[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(getEpochDay(index));
+    }
+
+    public int getCategoryId(int index) {
+        checkIndex(index);
+        return categories[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public String getCategory(int index) {
+        return categoryNames.get(getCategoryId(index));
+    }
+
+    public int getCurrencyId(int index) {
+        checkIndex(index);
+        byte[] chunk = currencies[index >>> CHUNK_SHIFT];
+        return chunk == null ? 0 : chunk[index & CHUNK_MASK] & 0xFF;
+    }
+
+    public String getCurrency(int index) {
+        return currencyCodes.get(getCurrencyId(index));
+    }
+
+    // Rough heap footprint: the allocated column chunks plus the category dictionary
+    public long estimatedBytes() {
+        long chunks = 0;
+        long currencyChunks = 0;
+        for (int c = 0; c < amounts.length; c++) {
+            if (amounts[c] != null) {
+                chunks++;
+            }
+            if (currencies[c] != null) {
+                currencyChunks++;
+            }
+        }
+        long bytes = chunks * CHUNK_SIZE * (Long.BYTES + Integer.BYTES + Integer.BYTES) + currencyChunks * CHUNK_SIZE
+                + amounts.length * 4L * 8;
+        for (String name : categoryNames) {
+            bytes += 96 + name.length() * 2L; // string, map entry and list slot
+        }
+        return bytes;
+    }
+
+    // --------------------- Bulk Scans ---------------------
+    // Full recompute of the amount column in cents, read chunk by chunk.
+    // Long sums are exact, so this matches BudgetManager's running totals.
+    public long sumCents() {
+        long total = 0;
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            long[] chunk = amounts[start >>> CHUNK_SHIFT];
+            int end = Math.min(CHUNK_SIZE, size - start);
+            for (int i = 0; i < end; i++) {
+                total += chunk[i];
+            }
+        }
+        return total;
+    }
+
+    // Full recompute of cents per category id; index i of the result is category i
+    public long[] sumCentsByCategory() {
+        long[] totals = new long[categoryNames.size()];
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            long[] amountChunk = amounts[start >>> CHUNK_SHIFT];
+            int[] categoryChunk = categories[start >>> CHUNK_SHIFT];
+            int end = Math.min(CHUNK_SIZE, size - start);
+            for (int i = 0; i < end; i++) {
+                totals[categoryChunk[i]] += amountChunk[i];
+            }
+        }
+        return totals;
+    }
+
+    // Cents per category id from fromDay to toDay (inclusive), every row converted into
+    // the converter's currency at its own date. One pass over the columns with no lookups
+    // or allocation per row; chunks with no currency column whose base currency needs
+    // no conversion are summed exactly like the single-currency loops above.
+    public long[] sumCentsByCategory(int fromDay, int toDay, FxTable.Converter converter) {
+        long[] totals = new long[categoryNames.size()];
+        boolean baseIsTarget = converter.isIdentity(0);
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            int chunk = start >>> CHUNK_SHIFT;
+            long[] amountChunk = amounts[chunk];
+            int[] dayChunk = days[chunk];
+            int[] categoryChunk = categories[chunk];
+            byte[] currencyChunk = currencies[chunk];
+            int end = Math.min(CHUNK_SIZE, size - start);
+            if (currencyChunk == null && baseIsTarget) {
+                for (int i = 0; i < end; i++) {
+                    int day = dayChunk[i];
+                    if (day >= fromDay && day <= toDay) {
+                        totals[categoryChunk[i]] += amountChunk[i];
+                    }
+                }
+            } else {
+                for (int i = 0; i < end; i++) {
+                    int day = dayChunk[i];
+                    if (day >= fromDay && day <= toDay) {
+                        int currency = currencyChunk == null ? 0 : currencyChunk[i] & 0xFF;
+                        totals[categoryChunk[i]] += converter.convert(amountChunk[i], currency, day);
+                    }
+                }
+            }
+        }
+        return totals;
+    }
+
+    // --------------------- Expense Views ---------------------
+    // Builds an Expense object for one row; nothing is kept after the call
+    public Expense get(int index) {
+        return Expense.ofStoredCents(getCategory(index), getCents(index), getCurrency(index), getDate(index));
+    }
+
+    // Read-only List view over the store; each element is created on demand
+    public List<Expense> asList() {
+        return new AbstractList<Expense>() {
+            @Override
+            public Expense get(int index) {
+                return ExpenseStore.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
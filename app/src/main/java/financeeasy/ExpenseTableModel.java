@@ -0,0 +1,234 @@
+package financeeasy;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// --------------------- Expense Table Model ---------------------
+// Table model that reads straight from the BudgetManager's ExpenseStore.
+// Nothing is copied per row: JTable only asks for the cells it is painting,
+// so a million-row ledger costs the same to show as a ten-row one.
+//
+// Sorting and filtering never scan the store on the Event Dispatch Thread.
+// The EDT takes a copy-on-write fork of the store (O(chunks)), and a SwingWorker
+// builds an int[] of row indices from that fork (filtered by category, then
+// merge-sorted on the primitive columns), so expenses added on the EDT meanwhile
+// can't change what it reads. The table switches to the view when it is ready;
+// until then the previous view stays on screen.
+public class ExpenseTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {"Date", "Category", "Amount", "Currency"};
+
+    private final Main.BudgetManager budget;
+    private ExpenseStore held; // fork shown while a worker writes to the budget, else null
+    private int rowCount;
+
+    // Row indices into the store in display order; null means all rows in insertion order
+    private int[] view = null;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    private String filter = "";
+    private int generation = 0; // bumped on every request so stale workers are ignored
+
+    public ExpenseTableModel(Main.BudgetManager budget) {
+        this.budget = budget;
+        this.rowCount = budget.getStore().size();
+    }
+
+    // --------------------- Table Model ---------------------
+    @Override
+    public int getRowCount() {
+        return view == null ? rowCount : view.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? LocalDate.class : column == 2 ? Double.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int index = view == null ? row : view[row];
+        ExpenseStore store = held != null ? held : budget.getStore();
+        return switch (column) {
+            case 0 -> store.getDate(index);
+            case 1 -> store.getCategory(index);
+            case 2 -> store.getAmount(index);
+            default -> store.getCurrency(index);
+        };
+    }
+
+    // --------------------- Updates ---------------------
+    // Call on the EDT after expenses were added; newRowCount is the store size the caller
+    // knows is fully written (an import still running may already be past it)
+    public void rowsAdded(int newRowCount) {
+        held = null;
+        int oldCount = rowCount;
+        rowCount = newRowCount;
+        if (view == null) {
+            if (rowCount > oldCount) {
+                fireTableRowsInserted(oldCount, rowCount - 1);
+            }
+        } else {
+            refreshView();
+        }
+    }
+
+    // Call on the EDT before a worker starts writing to the budget (e.g. an import): until
+    // the next rowsAdded the table paints from a fork taken now, which nothing writes to.
+    // Sorting and filtering must wait as well, as they fork the live store.
+    public void holdRows() {
+        held = budget.getStore().fork();
+    }
+
+    // Clicking a header sorts by that column; clicking it again reverses the order
+    public void toggleSort(int column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        refreshView();
+    }
+
+    public void setFilter(String text) {
+        filter = text.trim().toLowerCase();
+        refreshView();
+    }
+
+    public String getSortDescription() {
+        if (sortColumn < 0) {
+            return "";
+        }
+        return "sorted by " + COLUMNS[sortColumn] + (ascending ? " (ascending)" : " (descending)");
+    }
+
+    private void refreshView() {
+        int requested = ++generation;
+        int rows = rowCount;
+        int column = sortColumn;
+        boolean asc = ascending;
+        String text = filter;
+        if (column < 0 && text.isEmpty()) {
+            view = null;
+            fireTableDataChanged();
+            return;
+        }
+        ExpenseStore store = budget.getStore().fork();
+        new SwingWorker<int[], Void>() {
+            protected int[] doInBackground() {
+                return buildView(store, rows, text, column, asc);
+            }
+
+            protected void done() {
+                if (requested != generation) {
+                    return; // a newer sort/filter request has been made since
+                }
+                try {
+                    view = get();
+                    fireTableDataChanged();
+                } catch (Exception ex) {
+                    view = null;
+                    fireTableDataChanged();
+                }
+            }
+        }.execute();
+    }
+
+    // --------------------- Building a View (background thread) ---------------------
+    // Only reads `store`, a fork nothing else writes to
+    private static int[] buildView(ExpenseStore store, int rows, String text, int column, boolean asc) {
+        // Decide per category once, then filter on the int category column
+        int categories = store.getCategoryCount();
+        boolean[] keep = new boolean[categories];
+        for (int id = 0; id < categories; id++) {
+            keep[id] = text.isEmpty() || store.getCategoryName(id).toLowerCase().contains(text);
+        }
+        int[] indices = new int[rows];
+        int count = 0;
+        for (int i = 0; i < rows; i++) {
+            if (keep[store.getCategoryId(i)]) {
+                indices[count++] = i;
+            }
+        }
+        indices = Arrays.copyOf(indices, count);
+        if (column < 0) {
+            return indices;
+        }
+
+        IndexComparator comparator;
+        if (column == 0) {
+            comparator = (a, b) -> Integer.compare(store.getEpochDay(a), store.getEpochDay(b));
+        } else if (column == 1) {
+            int[] rank = categoryRanks(store, categories);
+            comparator = (a, b) -> Integer.compare(rank[store.getCategoryId(a)], rank[store.getCategoryId(b)]);
+        } else if (column == 2) {
+            // Amounts as entered, whatever their currency
+            comparator = (a, b) -> Long.compare(store.getCents(a), store.getCents(b));
+        } else {
+            comparator = (a, b) -> store.getCurrency(a).compareTo(store.getCurrency(b));
+        }
+        IndexComparator ordered = asc ? comparator : (a, b) -> comparator.compare(b, a);
+        mergeSort(indices, new int[count], 0, count, ordered);
+        return indices;
+    }
+
+    // Alphabetical position of each category id
+    private static int[] categoryRanks(ExpenseStore store, int categories) {
+        Integer[] ids = new Integer[categories];
+        for (int id = 0; id < categories; id++) {
+            ids[id] = id;
+        }
+        Arrays.sort(ids, (a, b) -> store.getCategoryName(a).compareToIgnoreCase(store.getCategoryName(b)));
+        int[] rank = new int[categories];
+        for (int r = 0; r < categories; r++) {
+            rank[ids[r]] = r;
+        }
+        return rank;
+    }
+
+    private interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    // Stable merge sort on primitive row indices (no boxing)
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, IndexComparator c) {
+        if (to - from < 32) {
+            for (int i = from + 1; i < to; i++) {
+                int v = a[i];
+                int j = i - 1;
+                while (j >= from && c.compare(a[j], v) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid, c);
+        mergeSort(a, tmp, mid, to, c);
+        if (c.compare(a[mid - 1], a[mid]) <= 0) {
+            return; // already in order
+        }
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            a[k++] = c.compare(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+        }
+        while (i < mid) {
+            a[k++] = tmp[i++];
+        }
+        while (j < to) {
+            a[k++] = tmp[j++];
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package financeeasy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// --------------------- FX Table ---------------------
+// Local exchange rates by date, loaded from a CSV file of `date,currency,rate` lines
+// where rate is how many units of the table's base currency one unit of `currency`
+// buys that day, e.g. `2024-03-05,EUR,1.0856`.
+//
+// Rates are expanded once into one dense array per currency covering every day from
+// the first quote to the last; a day without a quote (weekends, holidays) uses the
+// most recent quote before it, and dates outside the table use the nearest end. So a
+// lookup is an array index, with no searching or map access. Cross rates into other
+// target currencies are divided out once per target and cached.
+//
+// Converter applies a table to the currency ids of one ExpenseStore, so aggregation
+// loops convert rows at their own date without looking anything up per row.
+public class FxTable {
+    private final String base;
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private final String[] codes;
+    private final int firstDay;
+    private final double[][] rates; // [currency id][day - firstDay], base units per unit
+
+    // Target currency id -> rates divided by the target's rates, made on first use
+    private final ConcurrentHashMap<Integer, double[][]> crossRates = new ConcurrentHashMap<>();
+
+    private FxTable(String base, String[] codes, int firstDay, double[][] rates) {
+        this.base = base;
+        this.codes = codes;
+        this.firstDay = firstDay;
+        this.rates = rates;
+        for (int id = 0; id < codes.length; id++) {
+            ids.put(codes[id], id);
+        }
+        crossRates.put(ids.get(base), rates);
+    }
+
+    // --------------------- Building ---------------------
+    public static class Builder {
+        private final String base;
+        private final TreeMap<String, TreeMap<Integer, Double>> quotes = new TreeMap<>();
+
+        public Builder(String base) {
+            this.base = Money.currencyCode(base);
+        }
+
+        // Units of the base currency one unit of `currency` buys on `date`
+        public Builder quote(String currency, LocalDate date, double rate) {
+            return quote(currency, (int) date.toEpochDay(), rate);
+        }
+
+        Builder quote(String currency, int epochDay, double rate) {
+            String code = Money.currencyCode(currency);
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                throw new IllegalArgumentException("Rate must be positive: " + rate);
+            }
+            if (!code.equals(base)) {
+                quotes.computeIfAbsent(code, k -> new TreeMap<>()).put(epochDay, rate);
+            }
+            return this;
+        }
+
+        public FxTable build() {
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            for (TreeMap<Integer, Double> byDay : quotes.values()) {
+                first = Math.min(first, byDay.firstKey());
+                last = Math.max(last, byDay.lastKey());
+            }
+            if (quotes.isEmpty()) {
+                first = last = 0;
+            }
+            String[] codes = new String[quotes.size() + 1];
+            double[][] rates = new double[codes.length][];
+            codes[0] = base;
+            rates[0] = new double[last - first + 1];
+            Arrays.fill(rates[0], 1.0);
+            int id = 1;
+            for (Map.Entry<String, TreeMap<Integer, Double>> entry : quotes.entrySet()) {
+                codes[id] = entry.getKey();
+                rates[id] = fill(entry.getValue(), first, last);
+                id++;
+            }
+            return new FxTable(base, codes, first, rates);
+        }
+
+        // Carries each quote forward to the next one; days before the first quote use it too
+        private static double[] fill(TreeMap<Integer, Double> byDay, int first, int last) {
+            double[] dense = new double[last - first + 1];
+            double rate = byDay.firstEntry().getValue();
+            Map.Entry<Integer, Double> next = byDay.firstEntry();
+            for (int day = first; day <= last; day++) {
+                while (next != null && next.getKey() <= day) {
+                    rate = next.getValue();
+                    next = byDay.higherEntry(next.getKey());
+                }
+                dense[day - first] = rate;
+            }
+            return dense;
+        }
+    }
+
+    // --------------------- Loading ---------------------
+    // `date,currency,rate` per line against Money.BASE_CURRENCY; blank lines, # comments
+    // and a `date,...` header are skipped
+    public static FxTable load(Path file) throws IOException {
+        Builder builder = new Builder(Money.BASE_CURRENCY);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.charAt(0) == '#' || line.regionMatches(true, 0, "date", 0, 4)) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    if (fields.length != 3) {
+                        throw new IllegalArgumentException("Expected date,currency,rate");
+                    }
+                    builder.quote(fields[1], LocalDate.parse(fields[0].trim()), Double.parseDouble(fields[2].trim()));
+                } catch (RuntimeException ex) {
+                    throw new IOException(file + " line " + lineNumber + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    // -Dfinanceeasy.fxRates, or fx-rates.csv next to the saved ledger
+    public static Path defaultFile() {
+        String file = System.getProperty("financeeasy.fxRates");
+        return file != null ? Path.of(file) : ExpenseJournal.defaultDirectory().resolve("fx-rates.csv");
+    }
+
+    // The default file's table, or null if there is no such file
+    public static FxTable loadDefault() throws IOException {
+        Path file = defaultFile();
+        return Files.exists(file) ? load(file) : null;
+    }
+
+    // --------------------- Lookups ---------------------
+    public String getBase() {
+        return base;
+    }
+
+    // Every currency with rates, base first
+    public List<String> getCurrencies() {
+        return Collections.unmodifiableList(Arrays.asList(codes));
+    }
+
+    public boolean hasCurrency(String currency) {
+        return ids.containsKey(currency);
+    }
+
+    // Units of `to` one unit of `from` buys on `date`
+    public double rate(String from, String to, LocalDate date) {
+        int index = index((int) date.toEpochDay());
+        return rates[id(from)][index] / rates[id(to)][index];
+    }
+
+    public long convert(long cents, String from, String to, LocalDate date) {
+        return from.equals(to) ? cents : (long) Math.rint(cents * rate(from, to, date));
+    }
+
+    private int id(String currency) {
+        Integer id = ids.get(currency);
+        if (id == null) {
+            throw new IllegalArgumentException("No exchange rates for " + currency);
+        }
+        return id;
+    }
+
+    private int index(int epochDay) {
+        int index = epochDay - firstDay;
+        int last = rates[0].length - 1;
+        return index < 0 ? 0 : index > last ? last : index;
+    }
+
+    private double[][] crossRates(int target) {
+        return crossRates.computeIfAbsent(target, t -> {
+            double[][] cross = new double[rates.length][];
+            for (int id = 0; id < rates.length; id++) {
+                double[] row = new double[rates[id].length];
+                for (int d = 0; d < row.length; d++) {
+                    row[d] = rates[id][d] / rates[t][d];
+                }
+                cross[id] = row;
+            }
+            return cross;
+        });
+    }
+
+    // Rough heap footprint of the dense rate arrays, including cached cross rates
+    public long estimatedBytes() {
+        return (long) crossRates.size() * rates.length * rates[0].length * Double.BYTES;
+    }
+
+    // --------------------- Converting a Store ---------------------
+    // Conversion of `store`'s rows into `target`; O(currencies in the store) to make
+    public Converter converter(ExpenseStore store, String target) {
+        double[][] cross = crossRates(id(target));
+        String[] storeCodes = new String[store.getCurrencyCount()];
+        double[][] factors = new double[storeCodes.length][];
+        for (int c = 0; c < factors.length; c++) {
+            storeCodes[c] = store.getCurrencyCode(c);
+            Integer id = ids.get(storeCodes[c]);
+            if (storeCodes[c].equals(target)) {
+                factors[c] = null;
+            } else {
+                factors[c] = id == null ? Converter.MISSING : cross[id];
+            }
+        }
+        return new Converter(target, storeCodes, factors, firstDay, rates[0].length - 1);
+    }
+
+    public static final class Converter {
+        static final double[] MISSING = new double[0];
+
+        private final String target;
+        private final String[] codes;     // the store's currency dictionary when this was made
+        private final double[][] factors; // by store currency id; null when already in target
+        private final int firstDay;
+        private final int lastIndex;
+
+        private Converter(String target, String[] codes, double[][] factors, int firstDay, int lastIndex) {
+            this.target = target;
+            this.codes = codes;
+            this.factors = factors;
+            this.firstDay = firstDay;
+            this.lastIndex = lastIndex;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        // Still valid for the store: no currency has been added to it since
+        boolean covers(ExpenseStore store) {
+            return store.getCurrencyCount() <= factors.length;
+        }
+
+        // True if rows in this currency need no conversion
+        boolean isIdentity(int currencyId) {
+            return factors[currencyId] == null;
+        }
+
+        public long convert(long cents, int currencyId, int epochDay) {
+            double[] rate = factors[currencyId];
+            if (rate == null) {
+                return cents;
+            }
+            if (rate == MISSING) {
+                throw new IllegalArgumentException("No exchange rates for " + codes[currencyId]);
+            }
+            int index = epochDay - firstDay;
+            index = index < 0 ? 0 : index > lastIndex ? lastIndex : index;
+            return (long) Math.rint(cents * rate[index]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package financeeasy;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// --------------------- Goal Projection ---------------------
+// Monte Carlo projection of a savings goal. Each simulated path starts from the
+// current savings and, once per month until the goal date, grows by a random
+// market return and adds one month's leftover drawn at random from the user's
+// own history (bootstrap sampling).
+//
+// Paths are simulated on the fork/join pool. Random streams come from
+// SplittableRandom.split() at each fork, and the fork tree depends only on the
+// number of paths, so the same seed always gives the same result, regardless of
+// how many cores run it.
+public class GoalProjection {
+    private static final int PATHS_PER_TASK = 4_096;
+    private static final double[] BAND_PERCENTILES = {10, 25, 50, 75, 90};
+
+    private final double goalAmount;
+    private final int months;
+    private final double currentSavings;
+    private final double[] monthlyLeftovers;
+    private final double annualReturn;
+    private final double annualVolatility;
+
+    public GoalProjection(double goalAmount, LocalDate goalDate, double currentSavings, double[] monthlyLeftovers,
+                          double annualReturn, double annualVolatility) {
+        if (monthlyLeftovers.length == 0) {
+            throw new IllegalArgumentException("At least one month of leftover history is needed");
+        }
+        this.goalAmount = goalAmount;
+        this.months = (int) Math.max(0, ChronoUnit.MONTHS.between(LocalDate.now(), goalDate));
+        this.currentSavings = currentSavings;
+        this.monthlyLeftovers = monthlyLeftovers.clone();
+        this.annualReturn = annualReturn;
+        this.annualVolatility = annualVolatility;
+    }
+
+    // --------------------- Result ---------------------
+    public static class Result {
+        private final double probability;
+        private final double[] bands;
+        private final int paths;
+        private final int months;
+        private final long nanos;
+
+        Result(double probability, double[] bands, int paths, int months, long nanos) {
+            this.probability = probability;
+            this.bands = bands;
+            this.paths = paths;
+            this.months = months;
+            this.nanos = nanos;
+        }
+
+        // Share of paths that end at or above the goal (0 to 1)
+        public double getProbability() {
+            return probability;
+        }
+
+        // Savings at the goal date for the 10th, 25th, 50th, 75th and 90th percentile paths
+        public double[] getBands() {
+            return bands.clone();
+        }
+
+        public String toString() {
+            return String.format("Chance of reaching goal: %.1f%% (%d paths, %d months, %.0f ms)%n"
+                            + "Savings at goal date: p10 $%.2f, p25 $%.2f, median $%.2f, p75 $%.2f, p90 $%.2f",
+                    probability * 100, paths, months, nanos / 1e6, bands[0], bands[1], bands[2], bands[3], bands[4]);
+        }
+    }
+
+    // --------------------- Simulation ---------------------
+    public Result run(int paths, long seed) {
+        long start = System.nanoTime();
+        double[] finals = new double[paths];
+        ForkJoinPool.commonPool().invoke(new PathTask(finals, 0, paths, new SplittableRandom(seed)));
+
+        int hits = 0;
+        for (double balance : finals) {
+            if (balance >= goalAmount) {
+                hits++;
+            }
+        }
+        Arrays.parallelSort(finals);
+        double[] bands = new double[BAND_PERCENTILES.length];
+        for (int i = 0; i < bands.length; i++) {
+            int rank = (int) Math.min(paths - 1, Math.round(BAND_PERCENTILES[i] / 100.0 * (paths - 1)));
+            bands[i] = paths == 0 ? 0 : finals[rank];
+        }
+        return new Result(paths == 0 ? 0 : (double) hits / paths, bands, paths, months, System.nanoTime() - start);
+    }
+
+    private class PathTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] finals;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        PathTask(double[] finals, int from, int to, SplittableRandom random) {
+            this.finals = finals;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PATHS_PER_TASK) {
+                simulate();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            PathTask left = new PathTask(finals, from, mid, random.split());
+            PathTask right = new PathTask(finals, mid, to, random);
+            invokeAll(left, right);
+        }
+
+        private void simulate() {
+            double monthlyMean = annualReturn / 12;
+            double monthlyVolatility = annualVolatility / Math.sqrt(12);
+            int history = monthlyLeftovers.length;
+            for (int p = from; p < to; p++) {
+                double balance = currentSavings;
+                for (int m = 0; m < months; m++) {
+                    balance *= 1 + monthlyMean + monthlyVolatility * random.nextGaussian();
+                    balance += monthlyLeftovers[random.nextInt(history)];
+                }
+                finals[p] = balance;
+            }
+        }
+    }
+}
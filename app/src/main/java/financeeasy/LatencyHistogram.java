@@ -0,0 +1,133 @@
+package financeeasy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// --------------------- Latency Histogram ---------------------
+// Lock-free latency histogram in nanoseconds, HDR style: log-linear buckets where
+// every power of two is split into SUB_BUCKETS equal parts, so any recorded value
+// is reported within 1 / SUB_BUCKETS (6.25%) of itself, from 1 ns to hours, in a
+// fixed 8 KB of counters. Recording is one array increment plus two adders.
+public class LatencyHistogram implements Metrics.LatencyMXBean {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    // --------------------- Recording ---------------------
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucket(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    // Values below SUB_BUCKETS get a bucket each; above that, bucket = (power of two,
+    // next SUB_BITS bits below the top one)
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    // Midpoint of a bucket's range
+    private static long value(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long low = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return low + ((1L << shift) >>> 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    // --------------------- Queries ---------------------
+    // Reads are not atomic with concurrent recording; good enough for monitoring
+    public long percentileNanos(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(value(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1e3 / n;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentileNanos(50) / 1e3;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return percentileNanos(90) / 1e3;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentileNanos(99) / 1e3;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1e3;
+    }
+
+    public String toString() {
+        return String.format("%s: count %d, mean %.2f us, p50 %.2f us, p90 %.2f us, p99 %.2f us, max %.2f us",
+                name, getCount(), getMeanMicros(), getP50Micros(), getP90Micros(), getP99Micros(), getMaxMicros());
+    }
+}
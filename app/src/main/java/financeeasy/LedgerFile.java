@@ -0,0 +1,382 @@
+package financeeasy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// --------------------- Ledger File ---------------------
+// Compact binary file for exporting and re-loading a whole ledger (typically an
+// order of magnitude smaller and faster to load than the same ledger as CSV).
+//
+// Layout:
+//   header  "FELG", version, rows, block count, category count, category names
+//   index   per block: file offset, byte length, CRC32, rows, min day, max day,
+//           and a bitmap of the category ids used in the block
+//   blocks  BLOCK_ROWS rows each, stored column by column. Each column is
+//           frame-of-reference bit-packed: a base (zigzag varint), a bit width,
+//           then every value minus the base in exactly that many bits.
+//           Columns: category id; day minus the previous row's day (the first
+//           row is relative to the block's min day); cents
+//
+// Readers memory-map the file, read the index, and skip every block whose date
+// range or category bitmap cannot match the filter without decoding it.
+public class LedgerFile {
+    private static final int MAGIC = 0x46454C47; // "FELG"
+    private static final int VERSION = 1;
+    static final int BLOCK_ROWS = 4096;
+
+    private final MappedByteBuffer map;
+    private final int rows;
+    private final String[] categories;
+    private final int bitmapWords;
+
+    // Block index
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final int[] blockChecksums;
+    private final int[] blockRows;
+    private final int[] blockMinDays;
+    private final int[] blockMaxDays;
+    private final long[][] blockCategories;
+
+    private int blocksRead = 0;
+    private int blocksSkipped = 0;
+
+    private LedgerFile(MappedByteBuffer map, Path file) throws IOException {
+        this.map = map;
+        if (map.getInt() != MAGIC || map.getInt() != VERSION) {
+            throw new IOException("Not a FinanceEasy ledger file: " + file);
+        }
+        rows = map.getInt();
+        int blocks = map.getInt();
+        categories = new String[map.getInt()];
+        for (int id = 0; id < categories.length; id++) {
+            byte[] name = new byte[map.getShort() & 0xFFFF];
+            map.get(name);
+            categories[id] = new String(name, StandardCharsets.UTF_8);
+        }
+        bitmapWords = bitmapWords(categories.length);
+        blockOffsets = new long[blocks];
+        blockLengths = new int[blocks];
+        blockChecksums = new int[blocks];
+        blockRows = new int[blocks];
+        blockMinDays = new int[blocks];
+        blockMaxDays = new int[blocks];
+        blockCategories = new long[blocks][bitmapWords];
+        for (int b = 0; b < blocks; b++) {
+            blockOffsets[b] = map.getLong();
+            blockLengths[b] = map.getInt();
+            blockChecksums[b] = map.getInt();
+            blockRows[b] = map.getInt();
+            blockMinDays[b] = map.getInt();
+            blockMaxDays[b] = map.getInt();
+            for (int w = 0; w < bitmapWords; w++) {
+                blockCategories[b][w] = map.getLong();
+            }
+        }
+    }
+
+    // --------------------- Opening ---------------------
+    public static LedgerFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new LedgerFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getBlockCount() {
+        return blockOffsets.length;
+    }
+
+    // Blocks decoded / skipped by the reads so far
+    public int getBlocksRead() {
+        return blocksRead;
+    }
+
+    public int getBlocksSkipped() {
+        return blocksSkipped;
+    }
+
+    // --------------------- Reading ---------------------
+    // Whole ledger; the store's category ids match the file's
+    public ExpenseStore read() throws IOException {
+        return read(Integer.MIN_VALUE, Integer.MAX_VALUE, (String[]) null);
+    }
+
+    // Rows from fromDay to toDay (inclusive epoch days) in the given categories
+    // (null or none for all categories)
+    public ExpenseStore read(int fromDay, int toDay, String... categoryFilter) throws IOException {
+        ExpenseStore store = new ExpenseStore();
+        for (String name : categories) {
+            store.categoryId(name);
+        }
+        long[] wanted = null;
+        if (categoryFilter != null && categoryFilter.length > 0) {
+            wanted = new long[bitmapWords];
+            for (String name : categoryFilter) {
+                int id = store.findCategoryId(name);
+                if (id >= 0) {
+                    wanted[id >>> 6] |= 1L << id;
+                }
+            }
+        }
+        boolean allRows = fromDay == Integer.MIN_VALUE && toDay == Integer.MAX_VALUE && wanted == null;
+
+        CRC32 crc = new CRC32();
+        long[][] columns = new long[3][BLOCK_ROWS]; // decoded block, reused
+        for (int b = 0; b < blockOffsets.length; b++) {
+            if (blockMaxDays[b] < fromDay || blockMinDays[b] > toDay || !intersects(blockCategories[b], wanted)) {
+                blocksSkipped++;
+                continue;
+            }
+            int position = (int) blockOffsets[b];
+            ByteBuffer block = map.duplicate().position(position).limit(position + blockLengths[b]);
+            crc.reset();
+            crc.update(block.duplicate());
+            if ((int) crc.getValue() != blockChecksums[b]) {
+                throw new IOException("Ledger file block " + b + " is corrupt");
+            }
+            blocksRead++;
+            decodeBlock(b, columns, store, allRows, fromDay, toDay, wanted);
+        }
+        return store;
+    }
+
+    private void decodeBlock(int b, long[][] columns, ExpenseStore store, boolean allRows, int fromDay, int toDay, long[] wanted) {
+        int count = blockRows[b];
+        BitReader in = new BitReader(map, (int) blockOffsets[b]);
+        long[] categoryIds = in.column(columns[0], count);
+        long[] dayDeltas = in.column(columns[1], count);
+        long[] cents = in.column(columns[2], count);
+        int day = blockMinDays[b];
+        for (int i = 0; i < count; i++) {
+            int categoryId = (int) categoryIds[i];
+            day += (int) dayDeltas[i];
+            if (allRows || (day >= fromDay && day <= toDay && (wanted == null || (wanted[categoryId >>> 6] & (1L << categoryId)) != 0))) {
+                store.add(categoryId, cents[i], day);
+            }
+        }
+    }
+
+    private static boolean intersects(long[] blockBitmap, long[] wanted) {
+        if (wanted == null) {
+            return true;
+        }
+        for (int w = 0; w < wanted.length; w++) {
+            if ((blockBitmap[w] & wanted[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --------------------- Bit Packing ---------------------
+    private static final class BitReader {
+        private final ByteBuffer buf;
+        private int position;
+        private long acc = 0;
+        private int accBits = 0;
+
+        BitReader(ByteBuffer buf, int position) {
+            this.buf = buf;
+            this.position = position;
+        }
+
+        long[] column(long[] values, int count) {
+            long base = unzigzag(varint());
+            int width = buf.get(position++);
+            for (int i = 0; i < count; i++) {
+                values[i] = base + bits(width);
+            }
+            acc = 0; // columns start on a byte boundary
+            accBits = 0;
+            return values;
+        }
+
+        private long bits(int width) {
+            long value = 0;
+            for (int done = 0; done < width; done += 32) {
+                int n = Math.min(32, width - done);
+                while (accBits < n) {
+                    acc |= (buf.get(position++) & 0xFFL) << accBits;
+                    accBits += 8;
+                }
+                value |= (acc & (-1L >>> (64 - n))) << done;
+                acc >>>= n;
+                accBits -= n;
+            }
+            return value;
+        }
+
+        private long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    private static final class BitWriter {
+        private final ByteBuffer out;
+        private long acc = 0;
+        private int accBits = 0;
+
+        BitWriter(ByteBuffer out) {
+            this.out = out;
+        }
+
+        void column(long[] values, int count) {
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            if (count == 0) {
+                min = max = 0;
+            }
+            int width = 64 - Long.numberOfLeadingZeros(max - min); // max - min as unsigned
+            writeVarint(out, zigzag(min));
+            out.put((byte) width);
+            for (int i = 0; i < count; i++) {
+                bits(values[i] - min, width);
+            }
+            if (accBits > 0) {
+                out.put((byte) acc);
+            }
+            acc = 0;
+            accBits = 0;
+        }
+
+        private void bits(long value, int width) {
+            for (int done = 0; done < width; done += 32) {
+                int n = Math.min(32, width - done);
+                acc |= ((value >>> done) & (-1L >>> (64 - n))) << accBits;
+                accBits += n;
+                while (accBits >= 8) {
+                    out.put((byte) acc);
+                    acc >>>= 8;
+                    accBits -= 8;
+                }
+            }
+        }
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // --------------------- Writing ---------------------
+    // Ledger files have no currency column yet, so only base-currency stores can be written
+    public static void write(ExpenseStore store, Path file) throws IOException {
+        if (store.hasForeignCurrency()) {
+            throw new IllegalArgumentException("Ledger files only hold " + Money.BASE_CURRENCY + " expenses");
+        }
+        int rows = store.size();
+        int blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        int categoryCount = store.getCategoryCount();
+        int words = bitmapWords(categoryCount);
+
+        ByteBuffer header = ByteBuffer.allocate(1024);
+        header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(blocks).putInt(categoryCount);
+        for (int id = 0; id < categoryCount; id++) {
+            byte[] name = store.getCategoryName(id).getBytes(StandardCharsets.UTF_8);
+            header = ensure(header, 2 + name.length);
+            header.putShort((short) name.length).put(name);
+        }
+        int indexAt = header.position();
+        int indexEntryBytes = 8 + 4 * 5 + words * 8;
+        long dataAt = indexAt + (long) blocks * indexEntryBytes;
+        header = ensure(header, blocks * indexEntryBytes);
+
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer block = ByteBuffer.allocate(BLOCK_ROWS * 3 * 8 + 64); // three 64-bit columns at most
+            long[] categoryIds = new long[BLOCK_ROWS];
+            long[] dayDeltas = new long[BLOCK_ROWS];
+            long[] cents = new long[BLOCK_ROWS];
+            CRC32 crc = new CRC32();
+            long offset = dataAt;
+            for (int b = 0; b < blocks; b++) {
+                int from = b * BLOCK_ROWS;
+                int to = Math.min(rows, from + BLOCK_ROWS);
+                int minDay = Integer.MAX_VALUE, maxDay = Integer.MIN_VALUE;
+                long[] bitmap = new long[words];
+                for (int i = from; i < to; i++) {
+                    int day = store.getEpochDay(i);
+                    minDay = Math.min(minDay, day);
+                    maxDay = Math.max(maxDay, day);
+                    int id = store.getCategoryId(i);
+                    bitmap[id >>> 6] |= 1L << id;
+                }
+                int previousDay = minDay;
+                for (int i = from; i < to; i++) {
+                    int day = store.getEpochDay(i);
+                    categoryIds[i - from] = store.getCategoryId(i);
+                    dayDeltas[i - from] = (long) day - previousDay;
+                    cents[i - from] = store.getCents(i);
+                    previousDay = day;
+                }
+                block.clear();
+                BitWriter packer = new BitWriter(block);
+                packer.column(categoryIds, to - from);
+                packer.column(dayDeltas, to - from);
+                packer.column(cents, to - from);
+                block.flip();
+                crc.reset();
+                crc.update(block.duplicate());
+                header.putLong(offset).putInt(block.remaining()).putInt((int) crc.getValue())
+                        .putInt(to - from).putInt(minDay).putInt(maxDay);
+                for (long word : bitmap) {
+                    header.putLong(word);
+                }
+                while (block.hasRemaining()) {
+                    offset += out.write(block, offset);
+                }
+            }
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += out.write(header, position);
+            }
+            out.force(true);
+        }
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buf, int bytes) {
+        if (buf.remaining() >= bytes) {
+            return buf;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + bytes));
+        buf.flip();
+        return bigger.put(buf);
+    }
+
+    private static void writeVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static int bitmapWords(int categoryCount) {
+        return Math.max(1, (categoryCount + 63) >>> 6);
+    }
+}
@@ -0,0 +1,993 @@
+package financeeasy;
+
+import java.util.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+public class Main {
+
+    // --------------------- Budget Manager ---------------------
+    static class BudgetManager {
+        private long incomeCents;
+        private ExpenseStore expenses;
+
+        // Running aggregates in cents, updated on every add/remove/update so summaries never rescan
+        private long totalCents;
+        private long[] categoryTotals = new long[0];
+        private int[] categoryCounts = new int[0];
+        private DateIndex dateIndex = new DateIndex();
+        private RollingWindowStats rollingStats = new RollingWindowStats();
+        private ExpenseDistribution distribution = new ExpenseDistribution();
+
+        // Recurring expenses, counted in closed form by every total below instead of being
+        // stored as rows; all-time totals count their occurrences up to today
+        private ArrayList<RecurringRule> rules = new ArrayList<>();
+
+        // Expenses in other currencies are stored as entered and added to the running
+        // totals above converted into the base currency at their own date's rate
+        private FxTable fxRates;
+        private FxTable.Converter toBase;
+        private String reportingCurrency = Money.BASE_CURRENCY;
+
+        // Optional on-disk journal; null means changes only live in memory
+        private ExpenseJournal journal;
+
+        public BudgetManager(double income) {
+            this.incomeCents = Money.fromDollars(income);
+            expenses = new ExpenseStore();
+            rollingStats.advanceTo((int) LocalDate.now().toEpochDay());
+        }
+
+        public void addExpense(Expense e) {
+            addExpense(e.getCategory(), e.getCents(), e.getCurrency(), (int) e.getDate().toEpochDay());
+        }
+
+        public void addExpense(String category, long cents, int epochDay) {
+            addExpense(category, cents, Money.BASE_CURRENCY, epochDay);
+        }
+
+        // Cents of `currency`; fails without adding anything if there is no rate for it
+        public void addExpense(String category, long cents, String currency, int epochDay) {
+            long start = Metrics.start();
+            synchronized (saveLock()) {
+                requireRates(currency);
+                int currencyId = expenses.currencyId(currency);
+                long baseCents = baseCents(currencyId, cents, epochDay);
+                int categoryId = expenses.categoryId(category);
+                expenses.add(categoryId, currencyId, cents, epochDay);
+                applyToTotals(categoryId, baseCents, epochDay, 1);
+                if (journal != null) {
+                    journal.logAdd(category, cents, currency, epochDay);
+                }
+            }
+            Metrics.ADD_EXPENSE.stop(start);
+        }
+
+        public void removeExpense(int index) {
+            synchronized (saveLock()) {
+                int categoryId = expenses.getCategoryId(index);
+                int epochDay = expenses.getEpochDay(index);
+                long cents = baseCents(expenses.getCurrencyId(index), expenses.getCents(index), epochDay);
+                expenses.remove(index);
+                applyToTotals(categoryId, -cents, epochDay, -1);
+                if (journal != null) {
+                    journal.logRemove(index);
+                }
+            }
+        }
+
+        public void updateExpense(int index, Expense e) {
+            updateExpense(index, e.getCategory(), e.getCents(), e.getCurrency(), (int) e.getDate().toEpochDay());
+        }
+
+        public void updateExpense(int index, String category, long cents, int epochDay) {
+            updateExpense(index, category, cents, Money.BASE_CURRENCY, epochDay);
+        }
+
+        public void updateExpense(int index, String category, long cents, String currency, int epochDay) {
+            synchronized (saveLock()) {
+                int oldCategoryId = expenses.getCategoryId(index);
+                int oldEpochDay = expenses.getEpochDay(index);
+                long oldCents = baseCents(expenses.getCurrencyId(index), expenses.getCents(index), oldEpochDay);
+                requireRates(currency);
+                int currencyId = expenses.currencyId(currency);
+                long baseCents = baseCents(currencyId, cents, epochDay);
+                int categoryId = expenses.categoryId(category);
+                expenses.set(index, categoryId, currencyId, cents, epochDay);
+                applyToTotals(oldCategoryId, -oldCents, oldEpochDay, -1);
+                applyToTotals(categoryId, baseCents, epochDay, 1);
+                if (journal != null) {
+                    journal.logUpdate(index, category, cents, currency, epochDay);
+                }
+            }
+        }
+
+        // The journal's flusher snapshots the store while holding the journal's monitor, so
+        // every change is made together with its journal record under that same monitor. A
+        // snapshot between the two would save the change and then replay its record again.
+        private Object saveLock() {
+            return journal != null ? journal : this;
+        }
+
+        // Loads whatever the journal has saved into this (empty) manager, then
+        // records every later change to it
+        public void attachJournal(ExpenseJournal journal) throws IOException {
+            attachJournal(journal, 200);
+        }
+
+        // flushIntervalMillis <= 0 means no background flusher; the caller commits
+        void attachJournal(ExpenseJournal journal, long flushIntervalMillis) throws IOException {
+            journal.open(this, flushIntervalMillis);
+            this.journal = journal;
+        }
+
+        // Appends every row of another store (e.g. one parsed by CsvImporter), mapping its
+        // category ids onto this ledger's dictionary. Rows are not journaled one by one;
+        // call importFinished() afterwards to save them in a single snapshot.
+        public void importStore(ExpenseStore other) {
+            synchronized (saveLock()) {
+                appendRows(other);
+            }
+        }
+
+        // importStore and importFinished as one step: either every row is added and saved,
+        // or (if a row has no exchange rate or the snapshot fails) none are kept
+        public void importAndSave(ExpenseStore other) throws IOException {
+            importAndSave(sink -> sink.accept(other));
+        }
+
+        // Rows that arrive in batches, e.g. one per CsvImporter round
+        public interface ImportSource {
+            // Hands every batch to sink in order; each is appended before the next is made
+            void run(java.util.function.Consumer<ExpenseStore> sink) throws IOException;
+        }
+
+        // As above, batch by batch so only one batch has to be in memory, all under the save
+        // lock. On failure the store is cut back to its size before the import.
+        public void importAndSave(ImportSource source) throws IOException {
+            synchronized (saveLock()) {
+                int before = expenses.size();
+                try {
+                    source.run(this::appendRows);
+                    importFinished();
+                } catch (IOException | RuntimeException ex) {
+                    for (int i = before; i < expenses.size(); i++) {
+                        int epochDay = expenses.getEpochDay(i);
+                        applyToTotals(expenses.getCategoryId(i), -baseCents(expenses.getCurrencyId(i), expenses.getCents(i), epochDay), epochDay, -1);
+                    }
+                    expenses.truncate(before);
+                    throw ex;
+                }
+            }
+        }
+
+        private void appendRows(ExpenseStore other) {
+            int[] idMap = new int[other.getCategoryCount()];
+            for (int id = 0; id < idMap.length; id++) {
+                idMap[id] = expenses.categoryId(other.getCategoryName(id));
+            }
+            int[] currencyMap = new int[other.getCurrencyCount()];
+            for (int id = 0; id < currencyMap.length; id++) {
+                requireRates(other.getCurrencyCode(id));
+            }
+            for (int id = 0; id < currencyMap.length; id++) {
+                currencyMap[id] = expenses.currencyId(other.getCurrencyCode(id));
+            }
+            for (int i = 0; i < other.size(); i++) {
+                int categoryId = idMap[other.getCategoryId(i)];
+                int currencyId = currencyMap[other.getCurrencyId(i)];
+                long cents = other.getCents(i);
+                int epochDay = other.getEpochDay(i);
+                long baseCents = baseCents(currencyId, cents, epochDay);
+                expenses.add(categoryId, currencyId, cents, epochDay);
+                applyToTotals(categoryId, baseCents, epochDay, 1);
+            }
+        }
+
+        public void importFinished() throws IOException {
+            if (journal != null) {
+                journal.snapshot();
+            }
+        }
+
+        // Recomputes the running totals from the store, e.g. after a bulk load
+        void rebuildTotals() {
+            totalCents = 0;
+            categoryTotals = new long[0];
+            categoryCounts = new int[0];
+            dateIndex.clear();
+            rollingStats.clear();
+            rollingStats.advanceTo((int) LocalDate.now().toEpochDay());
+            distribution.clear();
+            for (int i = 0; i < expenses.size(); i++) {
+                int epochDay = expenses.getEpochDay(i);
+                applyToTotals(expenses.getCategoryId(i), baseCents(expenses.getCurrencyId(i), expenses.getCents(i), epochDay), epochDay, 1);
+            }
+        }
+
+        private void applyToTotals(int categoryId, long cents, int epochDay, int countChange) {
+            if (categoryId >= categoryTotals.length) {
+                int newLength = Math.max(categoryId + 1, categoryTotals.length * 2);
+                categoryTotals = Arrays.copyOf(categoryTotals, newLength);
+                categoryCounts = Arrays.copyOf(categoryCounts, newLength);
+            }
+            totalCents += cents;
+            categoryTotals[categoryId] += cents;
+            categoryCounts[categoryId] += countChange;
+            dateIndex.add(epochDay, categoryId, cents);
+            rollingStats.add(epochDay, categoryId, cents);
+            if (countChange > 0) {
+                distribution.add(epochDay, categoryId, cents);
+            } else {
+                distribution.remove(epochDay, categoryId, -cents);
+            }
+        }
+
+        // --------------------- Forking ---------------------
+        // What-if copy: shares the expense chunks, date index blocks, rolling windows and
+        // distribution sketches with this manager, each copy-on-write (see ExpenseStore.fork,
+        // DateIndex.copy and the others), so it costs O(chunks + blocks + categories + months)
+        // references whatever the number of expenses. Only the O(categories) totals are
+        // copied. It has no journal, so changes to the fork are never saved. Either side
+        // can be changed afterwards without affecting the other.
+        public BudgetManager fork() {
+            BudgetManager copy = new BudgetManager(0);
+            copy.incomeCents = incomeCents;
+            copy.expenses = expenses.fork();
+            copy.totalCents = totalCents;
+            copy.categoryTotals = categoryTotals.clone();
+            copy.categoryCounts = categoryCounts.clone();
+            copy.dateIndex = dateIndex.copy();
+            copy.rollingStats = rollingStats.copy();
+            copy.distribution = distribution.copy();
+            copy.rules = new ArrayList<>(rules);
+            copy.fxRates = fxRates;
+            copy.toBase = toBase;
+            copy.reportingCurrency = reportingCurrency;
+            return copy;
+        }
+
+        public long getTotalCents() {
+            return totalCents + getRecurringCents(LocalDate.MIN, LocalDate.now());
+        }
+
+        public long getLeftoverCents() {
+            return incomeCents - getTotalCents();
+        }
+
+        public long getIncomeCents() {
+            return incomeCents;
+        }
+
+        public double getTotalSpent() {
+            return Money.toDollars(getTotalCents());
+        }
+
+        public double getLeftover() {
+            return Money.toDollars(getLeftoverCents());
+        }
+
+        public double getIncome() {
+            return Money.toDollars(incomeCents);
+        }
+
+        public void setIncome(double income) {
+            setIncomeCents(Money.fromDollars(income));
+        }
+
+        public void setIncomeCents(long incomeCents) {
+            synchronized (saveLock()) {
+                this.incomeCents = incomeCents;
+                if (journal != null) {
+                    journal.logIncome(incomeCents);
+                }
+            }
+        }
+
+        // O(categories): built from the running totals, skipping categories with no expenses left
+        public HashMap<String, Double> getByCategory() {
+            long start = Metrics.start();
+            HashMap<String, Double> map = new HashMap<>();
+            int categories = Math.min(categoryTotals.length, expenses.getCategoryCount());
+            for (int id = 0; id < categories; id++) {
+                if (categoryCounts[id] > 0) {
+                    map.put(expenses.getCategoryName(id), Money.toDollars(categoryTotals[id]));
+                }
+            }
+            addRecurringDollars(map, Integer.MIN_VALUE, (int) LocalDate.now().toEpochDay());
+            Metrics.SUMMARY.stop(start);
+            return map;
+        }
+
+        // --------------------- Date Range Queries ---------------------
+        // Both dates are inclusive; answered from the date index in O(log days)
+        public long getTotalCents(LocalDate from, LocalDate to) {
+            return dateIndex.sum((int) from.toEpochDay(), (int) to.toEpochDay()) + getRecurringCents(from, to);
+        }
+
+        public long getTotalCents(YearMonth month) {
+            return getTotalCents(month.atDay(1), month.atEndOfMonth());
+        }
+
+        public double getTotalSpent(LocalDate from, LocalDate to) {
+            return Money.toDollars(getTotalCents(from, to));
+        }
+
+        public double getTotalSpent(YearMonth month) {
+            return getTotalSpent(month.atDay(1), month.atEndOfMonth());
+        }
+
+        // O(categories * log days + rules); categories with nothing spent in the range are left out
+        public HashMap<String, Double> getByCategory(LocalDate from, LocalDate to) {
+            long start = Metrics.start();
+            int fromDay = (int) from.toEpochDay();
+            int toDay = (int) to.toEpochDay();
+            long[] totals = dateIndex.sumByCategory(fromDay, toDay, expenses.getCategoryCount());
+            HashMap<String, Double> map = new HashMap<>();
+            for (int id = 0; id < totals.length; id++) {
+                if (totals[id] != 0) {
+                    map.put(expenses.getCategoryName(id), Money.toDollars(totals[id]));
+                }
+            }
+            addRecurringDollars(map, fromDay, toDay);
+            Metrics.SUMMARY.stop(start);
+            return map;
+        }
+
+        public HashMap<String, Double> getByCategory(YearMonth month) {
+            return getByCategory(month.atDay(1), month.atEndOfMonth());
+        }
+
+        // Same as getByCategory, in cents
+        public HashMap<String, Long> getCentsByCategory(YearMonth month) {
+            int fromDay = (int) month.atDay(1).toEpochDay();
+            int toDay = (int) month.atEndOfMonth().toEpochDay();
+            long[] totals = dateIndex.sumByCategory(fromDay, toDay, expenses.getCategoryCount());
+            HashMap<String, Long> map = new HashMap<>();
+            for (int id = 0; id < totals.length; id++) {
+                if (totals[id] != 0) {
+                    map.put(expenses.getCategoryName(id), totals[id]);
+                }
+            }
+            for (RecurringRule rule : rules) {
+                long cents = rule.centsBetween(fromDay, toDay);
+                if (cents != 0) {
+                    map.merge(rule.getCategory(), cents, Long::sum);
+                }
+            }
+            return map;
+        }
+
+        // --------------------- Recurring Expenses ---------------------
+        // Saved like expenses: journaled as they change and written whole into each snapshot
+        public void addRecurring(RecurringRule rule) {
+            synchronized (saveLock()) {
+                rules.add(rule);
+                if (journal != null) {
+                    journal.logAddRule(rule);
+                }
+            }
+        }
+
+        public boolean removeRecurring(RecurringRule rule) {
+            synchronized (saveLock()) {
+                int index = rules.indexOf(rule);
+                if (index < 0) {
+                    return false;
+                }
+                removeRecurring(index);
+                return true;
+            }
+        }
+
+        // The journal records removals by position in getRecurringRules()
+        void removeRecurring(int index) {
+            synchronized (saveLock()) {
+                rules.remove(index);
+                if (journal != null) {
+                    journal.logRemoveRule(index);
+                }
+            }
+        }
+
+        public List<RecurringRule> getRecurringRules() {
+            return Collections.unmodifiableList(rules);
+        }
+
+        // What the rules cost from `from` to `to` (inclusive); O(rules), whatever the range
+        public long getRecurringCents(LocalDate from, LocalDate to) {
+            int fromDay = (int) Math.max(from.toEpochDay(), Integer.MIN_VALUE);
+            int toDay = (int) Math.min(to.toEpochDay(), Integer.MAX_VALUE);
+            long cents = 0;
+            for (RecurringRule rule : rules) {
+                cents = Math.addExact(cents, rule.centsBetween(fromDay, toDay));
+            }
+            return cents;
+        }
+
+        private void addRecurringDollars(HashMap<String, Double> map, int fromDay, int toDay) {
+            for (RecurringRule rule : rules) {
+                long cents = rule.centsBetween(fromDay, toDay);
+                if (cents != 0) {
+                    // Merge in cents so a rule adding to an existing category rounds like the rows do
+                    long merged = Money.fromDollars(map.getOrDefault(rule.getCategory(), 0.0)) + cents;
+                    map.put(rule.getCategory(), Money.toDollars(merged));
+                }
+            }
+        }
+
+        // Each occurrence of every rule from `from` to `to` (inclusive) as an Expense, in date
+        // order. Nothing is materialized up front: occurrences are made as the view iterates.
+        public Iterable<Expense> getRecurringExpenses(LocalDate from, LocalDate to) {
+            List<RecurringRule> snapshot = new ArrayList<>(rules);
+            return () -> new Iterator<Expense>() {
+                private final PriorityQueue<Pending> queue = new PriorityQueue<>();
+
+                {
+                    for (RecurringRule rule : snapshot) {
+                        Iterator<LocalDate> dates = rule.occurrences(from, to).iterator();
+                        if (dates.hasNext()) {
+                            queue.add(new Pending(rule, dates, dates.next()));
+                        }
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return !queue.isEmpty();
+                }
+
+                @Override
+                public Expense next() {
+                    Pending head = queue.poll();
+                    if (head == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Expense expense = Expense.ofCents(head.rule.getCategory(), head.rule.getCents(), head.date);
+                    if (head.dates.hasNext()) {
+                        queue.add(new Pending(head.rule, head.dates, head.dates.next()));
+                    }
+                    return expense;
+                }
+            };
+        }
+
+        // Next occurrence of one rule while merging them by date
+        private static final class Pending implements Comparable<Pending> {
+            final RecurringRule rule;
+            final Iterator<LocalDate> dates;
+            final LocalDate date;
+
+            Pending(RecurringRule rule, Iterator<LocalDate> dates, LocalDate date) {
+                this.rule = rule;
+                this.dates = dates;
+                this.date = date;
+            }
+
+            public int compareTo(Pending other) {
+                return date.compareTo(other.date);
+            }
+        }
+
+        // Income minus spending for every calendar month from the first to the last
+        // recorded expense; just the current leftover if nothing is recorded yet
+        public double[] getMonthlyLeftovers() {
+            if (dateIndex.isEmpty()) {
+                return new double[]{getLeftover()};
+            }
+            YearMonth first = YearMonth.from(LocalDate.ofEpochDay(dateIndex.getFirstDay()));
+            YearMonth last = YearMonth.from(LocalDate.ofEpochDay(dateIndex.getLastDay()));
+            double[] leftovers = new double[(int) first.until(last, ChronoUnit.MONTHS) + 1];
+            for (int i = 0; i < leftovers.length; i++) {
+                leftovers[i] = Money.toDollars(incomeCents - getTotalCents(first.plusMonths(i)));
+            }
+            return leftovers;
+        }
+
+        // 7/30/90-day moving spend, ending on the date this manager was made or the last
+        // advanceTo(today); call advanceTo(today) on it before reading
+        public RollingWindowStats getRollingStats() {
+            return rollingStats;
+        }
+
+        // --------------------- Distribution Queries ---------------------
+        // Expense size at quantile q (0.5 = median, 0.9 = p90...) for one category, or
+        // every category if category is null; within 1% of the exact value
+        public double getExpenseQuantile(String category, double q) {
+            int categoryId = distributionCategory(category);
+            return categoryId == NO_CATEGORY ? 0 : Money.toDollars(distribution.sketch(categoryId).quantile(q));
+        }
+
+        public double getExpenseQuantile(String category, YearMonth from, YearMonth to, double q) {
+            return Money.toDollars(getQuantileSketch(category, from, to).quantile(q));
+        }
+
+        // Mergeable sketch of expense sizes over whole months, e.g. to combine tenants
+        public QuantileSketch getQuantileSketch(String category, YearMonth from, YearMonth to) {
+            int categoryId = distributionCategory(category);
+            if (categoryId == NO_CATEGORY) {
+                return new QuantileSketch();
+            }
+            return distribution.sketch(categoryId, monthIndex(from), monthIndex(to));
+        }
+
+        // The k (up to ExpenseDistribution.MAX_TOP) largest expenses from the start of
+        // `from` to the end of `to`, largest first
+        public List<Expense> getLargestExpenses(YearMonth from, YearMonth to, int k) {
+            return distribution.top(expenses, fxRates == null ? null : baseConverter(), monthIndex(from), monthIndex(to), k);
+        }
+
+        private static final int NO_CATEGORY = -2;
+
+        // -1 for every category, NO_CATEGORY if the name has never been used
+        private int distributionCategory(String category) {
+            if (category == null) {
+                return -1;
+            }
+            int categoryId = expenses.findCategoryId(category);
+            return categoryId < 0 ? NO_CATEGORY : categoryId;
+        }
+
+        private static int monthIndex(YearMonth month) {
+            return month.getYear() * 12 + month.getMonthValue() - 1;
+        }
+
+        // --------------------- Currencies ---------------------
+        // Replaces the exchange rates and re-converts every expense in another currency;
+        // null only works while every expense is in the base currency
+        public void setFxRates(FxTable table) {
+            FxTable previous = fxRates;
+            fxRates = table;
+            toBase = null;
+            try {
+                rebuildTotals();
+            } catch (RuntimeException ex) {
+                fxRates = previous;
+                toBase = null;
+                rebuildTotals();
+                throw ex;
+            }
+            if (!hasRates(reportingCurrency)) {
+                reportingCurrency = Money.BASE_CURRENCY;
+            }
+        }
+
+        public FxTable getFxRates() {
+            return fxRates;
+        }
+
+        // Currency the summaries are shown in (the base currency unless changed)
+        public void setReportingCurrency(String currency) {
+            String code = Money.currencyCode(currency);
+            if (!hasRates(code)) {
+                throw new IllegalArgumentException("No exchange rates loaded for " + code);
+            }
+            reportingCurrency = code;
+        }
+
+        public String getReportingCurrency() {
+            return reportingCurrency;
+        }
+
+        // True if amounts in `currency` can be added or reported (always for the base currency)
+        public boolean hasRates(String currency) {
+            return currency.equals(Money.BASE_CURRENCY) || (fxRates != null && fxRates.hasCurrency(currency));
+        }
+
+        // Checked before a code goes into the store's dictionary, which keeps every code it
+        // is given and holds at most 256
+        private void requireRates(String currency) {
+            if (!hasRates(currency)) {
+                throw new IllegalArgumentException("No exchange rates loaded for " + currency);
+            }
+        }
+
+        private long baseCents(int currencyId, long cents, int epochDay) {
+            return currencyId == 0 ? cents : baseConverter().convert(cents, currencyId, epochDay);
+        }
+
+        // Remade when a currency is added to the store after it was built
+        private FxTable.Converter baseConverter() {
+            if (toBase == null || !toBase.covers(expenses)) {
+                if (fxRates == null) {
+                    throw new IllegalArgumentException("No exchange rates loaded for " + expenses.getCurrencyCode(expenses.getCurrencyCount() - 1));
+                }
+                toBase = fxRates.converter(expenses, Money.BASE_CURRENCY);
+            }
+            return toBase;
+        }
+
+        // Spending converted into `currency`, every expense at its own date's rate. The
+        // base currency comes from the running totals; any other is one bulk pass over
+        // the store (see ExpenseStore.sumCentsByCategory), however many currencies it holds.
+        // All-time values count recurring rules up to today, as in getTotalCents().
+        public long getTotalCents(String currency) {
+            if (currency.equals(Money.BASE_CURRENCY)) {
+                return getTotalCents();
+            }
+            long total = 0;
+            for (long cents : getCentsByCategory(currency).values()) {
+                total += cents;
+            }
+            return total;
+        }
+
+        public HashMap<String, Long> getCentsByCategory(String currency) {
+            long start = Metrics.start();
+            int today = (int) LocalDate.now().toEpochDay();
+            if (!currency.equals(Money.BASE_CURRENCY)) {
+                HashMap<String, Long> map = convertedByCategory(Integer.MIN_VALUE, Integer.MAX_VALUE, today, currency);
+                Metrics.SUMMARY.stop(start);
+                return map;
+            }
+            HashMap<String, Long> map = new HashMap<>();
+            int categories = Math.min(categoryTotals.length, expenses.getCategoryCount());
+            for (int id = 0; id < categories; id++) {
+                if (categoryCounts[id] > 0) {
+                    map.put(expenses.getCategoryName(id), categoryTotals[id]);
+                }
+            }
+            for (RecurringRule rule : rules) {
+                long cents = rule.centsBetween(Integer.MIN_VALUE, today);
+                if (cents != 0) {
+                    map.merge(rule.getCategory(), cents, Long::sum);
+                }
+            }
+            Metrics.SUMMARY.stop(start);
+            return map;
+        }
+
+        public long getTotalCents(YearMonth month, String currency) {
+            if (currency.equals(Money.BASE_CURRENCY)) {
+                return getTotalCents(month);
+            }
+            long total = 0;
+            for (long cents : getCentsByCategory(month, currency).values()) {
+                total += cents;
+            }
+            return total;
+        }
+
+        public HashMap<String, Long> getCentsByCategory(YearMonth month, String currency) {
+            if (currency.equals(Money.BASE_CURRENCY)) {
+                return getCentsByCategory(month);
+            }
+            int toDay = (int) month.atEndOfMonth().toEpochDay();
+            return convertedByCategory((int) month.atDay(1).toEpochDay(), toDay, toDay, currency);
+        }
+
+        // Income (kept in the base currency) at today's rate
+        public long getIncomeCents(String currency) {
+            return convertedFromBase(incomeCents, LocalDate.now(), currency);
+        }
+
+        public long getLeftoverCents(String currency) {
+            return getIncomeCents(currency) - getTotalCents(currency);
+        }
+
+        private long convertedFromBase(long cents, LocalDate date, String currency) {
+            if (currency.equals(Money.BASE_CURRENCY)) {
+                return cents;
+            }
+            if (fxRates == null) {
+                throw new IllegalArgumentException("No exchange rates loaded for " + currency);
+            }
+            return fxRates.convert(cents, Money.BASE_CURRENCY, currency, date);
+        }
+
+        // Rows from fromDay to toDay and rule occurrences up to ruleToDay, by category name
+        private HashMap<String, Long> convertedByCategory(int fromDay, int toDay, int ruleToDay, String currency) {
+            if (fxRates == null) {
+                throw new IllegalArgumentException("No exchange rates loaded for " + currency);
+            }
+            FxTable.Converter converter = fxRates.converter(expenses, currency);
+            long[] totals = expenses.sumCentsByCategory(fromDay, toDay, converter);
+            HashMap<String, Long> map = new HashMap<>();
+            for (int id = 0; id < totals.length; id++) {
+                if (totals[id] != 0) {
+                    map.put(expenses.getCategoryName(id), totals[id]);
+                }
+            }
+            for (RecurringRule rule : rules) {
+                // Rules are in the base currency; each occurrence at its own date's rate
+                LocalDate from = LocalDate.ofEpochDay(Math.max(fromDay, (int) rule.getStart().toEpochDay()));
+                long cents = 0;
+                for (LocalDate date : rule.occurrences(from, LocalDate.ofEpochDay(ruleToDay))) {
+                    cents += converter.convert(rule.getCents(), 0, (int) date.toEpochDay());
+                }
+                if (cents != 0) {
+                    map.merge(rule.getCategory(), cents, Long::sum);
+                }
+            }
+            return map;
+        }
+
+        // Rough heap footprint of the ledger and its indexes
+        public long estimatedBytes() {
+            return expenses.estimatedBytes() + dateIndex.estimatedBytes() + distribution.estimatedBytes()
+                    + categoryTotals.length * 12L;
+        }
+
+        // Expense objects are created on demand from the store
+        public List<Expense> getExpenses() {
+            return expenses.asList();
+        }
+
+        public ExpenseStore getStore() {
+            return expenses;
+        }
+    }
+
+    // --------------------- Goal Tracker ---------------------
+    static class GoalTracker {
+        // Expected yearly return on savings, used by the projection and the solvers
+        static final double EXPECTED_RETURN = 0.05;
+
+        private double goalAmount;
+        private LocalDate goalDate;
+
+        public GoalTracker(double goalAmount, LocalDate goalDate) {
+            this.goalAmount = goalAmount;
+            this.goalDate = goalDate;
+        }
+
+        public double getGoalAmount() {
+            return goalAmount;
+        }
+
+        public LocalDate getGoalDate() {
+            return goalDate;
+        }
+
+        public double getProgress(double current) {
+            return (current / goalAmount) * 100;
+        }
+
+        public long getDaysLeft() {
+            return LocalDate.now().until(goalDate).getDays();
+        }
+
+        // Simulates many savings paths using the budget's monthly leftover history
+        // and a stock/bond-like return (5% a year, 10% volatility)
+        public GoalProjection.Result project(double current, BudgetManager budget, long seed) {
+            return project(current, budget.getMonthlyLeftovers(), seed);
+        }
+
+        // Same, from leftovers already read out of the budget (so it can run on another thread)
+        public GoalProjection.Result project(double current, double[] monthlyLeftovers, long seed) {
+            GoalProjection projection = new GoalProjection(goalAmount, goalDate, current, monthlyLeftovers, EXPECTED_RETURN, 0.10);
+            return projection.run(200_000, seed);
+        }
+
+        // Date the goal is reached if savings keep growing by the monthly income minus
+        // the spending rate of the last 30 days; null if that leaves nothing to save.
+        // Cheap enough to call after every new expense.
+        public LocalDate projectCompletionDate(double current, BudgetManager budget, LocalDate today) {
+            RollingWindowStats stats = budget.getRollingStats();
+            stats.advanceTo((int) today.toEpochDay());
+            long remainingCents = Money.fromDollars(goalAmount) - Money.fromDollars(current);
+            if (remainingCents <= 0) {
+                return today;
+            }
+            double dailyIncomeCents = budget.getIncomeCents() * 12 / 365.25;
+            // Recurring rules are not rows, so the rolling stats miss them; add their last 30 days
+            double recurringCents = budget.getRecurringCents(today.minusDays(29), today) / 30.0;
+            double dailySavingCents = dailyIncomeCents - stats.getDailyVelocity(30) - recurringCents;
+            if (dailySavingCents <= 0) {
+                return null;
+            }
+            return today.plusDays((long) Math.ceil(remainingCents / dailySavingCents));
+        }
+
+        // Monthly saving that reaches the goal by its date at the given yearly return
+        // (at least one month, so an overdue goal asks for the whole gap now)
+        public double getRequiredMonthlyContribution(double current, double annualRate, LocalDate today) {
+            int months = (int) Math.max(1, today.until(goalDate, ChronoUnit.MONTHS));
+            return Solvers.requiredMonthlyContribution(goalAmount, current, annualRate, months);
+        }
+
+        // Months to the goal saving `monthlyContribution` at the given yearly return; -1 if never
+        public int getMonthsToGoal(double current, double annualRate, double monthlyContribution) {
+            return Solvers.monthsToGoal(goalAmount, current, annualRate, monthlyContribution);
+        }
+
+        public boolean isOnTrack(double current, BudgetManager budget, LocalDate today) {
+            LocalDate completion = projectCompletionDate(current, budget, today);
+            return completion != null && !completion.isAfter(goalDate);
+        }
+
+        public void showProgress(double current) {
+            System.out.println("\n=== SAVINGS GOAL TRACKER ===");
+            System.out.println("Goal: $" + goalAmount + " by " + goalDate);
+            System.out.println("Current Savings: $" + current);
+            System.out.printf("Progress: %.1f%%\n", getProgress(current));
+            System.out.println("Days left: " + getDaysLeft());
+        }
+    }
+
+    public static void main(String[] args) {
+        Metrics.install();
+        if (args.length == 2 && args[0].equals("--batch")) {
+            System.exit(runBatch(args[1]));
+        }
+        Scanner sc = new Scanner(System.in);
+
+        // ---------------- Load saved expenses ----------------
+        BudgetManager bm = new BudgetManager(0);
+        ExpenseJournal journal = new ExpenseJournal(ExpenseJournal.defaultDirectory());
+        FxTable rates = null;
+        try {
+            rates = FxTable.loadDefault();
+            if (rates != null) {
+                bm.setFxRates(rates);
+            }
+        } catch (IOException ex) {
+            System.out.println("Could not load exchange rates: " + ex.getMessage());
+        }
+        try {
+            bm.attachJournal(journal);
+            if (bm.getStore().size() > 0) {
+                System.out.println("Loaded " + bm.getStore().size() + " saved expense(s).");
+            }
+        } catch (IOException | RuntimeException ex) {
+            // e.g. a saved expense's currency has no rates; carry on with an empty ledger,
+            // not the half-loaded one, and without saving over the files
+            System.out.println("Could not load saved expenses: " + ex.getMessage());
+            System.out.println("Nothing entered in this session will be saved (exchange rates are read from "
+                    + FxTable.defaultFile() + ").");
+            bm = new BudgetManager(0);
+            if (rates != null) {
+                bm.setFxRates(rates);
+            }
+        }
+
+        System.out.print("Enter your monthly income: $");
+        double income = sc.nextDouble();
+        sc.nextLine(); // clean up newline
+        bm.setIncome(income);
+
+        boolean keepGoing = true;
+
+        while (keepGoing) {
+            System.out.print("\nEnter expense category (like Food, Rent): ");
+            String cat = sc.nextLine();
+
+            System.out.print("Enter amount: $");
+            double amt = sc.nextDouble();
+
+            System.out.print("Enter date (YYYY-MM-DD): ");
+            String dateStr = sc.next();
+            sc.nextLine(); // clear newline
+            LocalDate date = LocalDate.parse(dateStr);
+
+            Expense e = new Expense(cat, amt, date);
+            bm.addExpense(e);
+
+            System.out.print("Add another expense? (yes/no): ");
+            String ans = sc.nextLine();
+            if (!ans.equalsIgnoreCase("yes")) {
+                keepGoing = false;
+            }
+        }
+
+        // ---------------- Savings goal section ----------------
+        GoalTracker tracker = null;
+        System.out.print("\nWould you like to set a savings goal? (yes/no): ");
+        String goalAns = sc.nextLine();
+
+        if (goalAns.equalsIgnoreCase("yes")) {
+            System.out.print("Enter savings target amount: $");
+            double goalAmt = sc.nextDouble();
+            sc.nextLine();
+
+            System.out.print("Enter target date (YYYY-MM-DD): ");
+            LocalDate goalDate = LocalDate.parse(sc.nextLine());
+
+            tracker = new GoalTracker(goalAmt, goalDate);
+        }
+
+        // ---------------- Tax Estimator ----------------
+        System.out.print("\nWould you like to estimate your taxes? (yes/no): ");
+        String taxAnswer = sc.nextLine().toLowerCase();
+
+        if (taxAnswer.equals("yes")) {
+            System.out.print("Enter your yearly income (or estimate): $");
+            double yearlyIncome = sc.nextDouble();
+
+            System.out.print("Enter estimated tax rate (e.g. 10 for 10%): ");
+            double taxRatePercent = sc.nextDouble();
+            sc.nextLine(); // clear buffer
+
+            long estimatedTax = Calculators.estimateTaxCents(Money.fromDollars(yearlyIncome), taxRatePercent / 100.0, Money.DEFAULT_ROUNDING);
+            System.out.println("Estimated tax owed: $" + Money.toString(estimatedTax));
+        }
+
+        // ---------------- Loan Calculator ----------------
+        System.out.print("\nWould you like to calculate a loan payment? (yes/no): ");
+        String loanAnswer = sc.nextLine().toLowerCase();
+
+        if (loanAnswer.equals("yes")) {
+            System.out.print("Enter loan amount: $");
+            double loanAmount = sc.nextDouble();
+
+            System.out.print("Enter annual interest rate (e.g. 5 for 5%): ");
+            double annualRate = sc.nextDouble() / 100.0;
+
+            System.out.print("Enter loan term (in years): ");
+            int loanYears = sc.nextInt();
+            sc.nextLine(); // clear newline
+
+            long monthlyPayment = Calculators.monthlyLoanPaymentCents(Money.fromDollars(loanAmount), annualRate, loanYears, RoundingMode.HALF_UP);
+            System.out.println("Your estimated monthly payment is: $" + Money.toString(monthlyPayment));
+        }
+
+
+        // Final summary
+        System.out.println("\n====== SUMMARY ======");
+        System.out.println("Monthly Income: $" + Money.toString(bm.getIncomeCents()));
+        System.out.println("Total Spent: $" + Money.toString(bm.getTotalCents()));
+        System.out.println("Leftover: $" + Money.toString(bm.getLeftoverCents()));
+
+        System.out.println("\nExpenses by Category:");
+        HashMap<String, Double> categoryMap = bm.getByCategory();
+        for (String cat : categoryMap.keySet()) {
+            System.out.println("- " + cat + ": $" + Money.toString(Money.fromDollars(categoryMap.get(cat))));
+        }
+
+        // One reused line buffer instead of an Expense and a String per row
+        System.out.println("\nAll Expenses:");
+        ExpenseStore store = bm.getStore();
+        StringBuilder line = new StringBuilder(64);
+        String[] symbols = new String[store.getCurrencyCount()];
+        for (int id = 0; id < symbols.length; id++) {
+            symbols[id] = Money.symbol(store.getCurrencyCode(id));
+        }
+        for (int i = 0; i < store.size(); i++) {
+            line.setLength(0);
+            line.append(store.getDate(i)).append(" - ").append(store.getCategory(i)).append(": ").append(symbols[store.getCurrencyId(i)]);
+            Money.append(line, store.getCents(i));
+            System.out.println(line);
+        }
+
+        if (tracker != null) {
+            tracker.showProgress(bm.getLeftover());
+            LocalDate completion = tracker.projectCompletionDate(bm.getLeftover(), bm, LocalDate.now());
+            System.out.println("At your last 30 days' spending: " + (completion == null
+                    ? "spending is above income, so the goal is not reached"
+                    : "goal reached by " + completion + (completion.isAfter(tracker.getGoalDate()) ? " (behind schedule)" : " (on track)")));
+            System.out.println(tracker.project(bm.getLeftover(), bm, 42));
+        }
+
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            System.out.println("Could not save expenses: " + ex.getMessage());
+        }
+
+        sc.close();
+    }
+
+    // --------------------- Headless Batch Mode ---------------------
+    // Main --batch <file|->: see BatchRunner for the record format
+    static int runBatch(String source) {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        BatchRunner runner = new BatchRunner(out);
+        try (InputStream in = source.equals("-") ? System.in : Files.newInputStream(Paths.get(source))) {
+            runner.run(in);
+            return 0;
+        } catch (IOException ex) {
+            System.err.println("Batch failed: " + ex.getMessage());
+            return 1;
+        }
+    }
+}
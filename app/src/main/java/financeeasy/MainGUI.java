@@ -0,0 +1,819 @@
+package financeeasy;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.*;
+import java.awt.Font;
+
+public class MainGUI {
+
+    // --------------------- GUI Components & Data Storage ---------------------
+    private JFrame frame;
+    private JTextField incomeField, categoryField, amountField, currencyField, dateField, reportField, filterField;
+    private JTable expenseTable;
+    private ExpenseTableModel tableModel;
+    private JLabel statusLabel;
+    private Main.BudgetManager budget;
+    private ExpenseJournal journal;
+    // False while a worker writes to the budget (loading the ledger, an import); the EDT
+    // leaves the budget alone until it is set again
+    private boolean budgetReady = false;
+    private double income = 0;
+
+    // Goal being tracked; its projected completion date is refreshed on every new expense
+    private Main.GoalTracker activeGoal;
+    private double activeSavings;
+    private JLabel completionLabel;
+
+    private JTabbedPane tabbedPane;
+    private JButton addButton, summaryButton, importButton, recurringButton;
+    private final StyleRegistry styles = new StyleRegistry();
+    // Tabs not built yet, by title
+    private final HashMap<String, java.util.function.Supplier<JPanel>> lazyTabs = new HashMap<>();
+
+    private static final Color BLUE = new Color(59, 89, 182);
+    private static final Color BLUE_HOVER = new Color(30, 70, 160);
+
+    private static final Metrics.Timer SUMMARY_RENDER = Metrics.timer("summary.render");
+    private static final Metrics.Timer TAB_BUILD = Metrics.timer("gui.tabBuild");
+    private static final StartupTimer STARTUP = new StartupTimer();
+
+    public MainGUI() {
+        STARTUP.mark("EDT");
+
+        // --------------------- Set Font Style ---------------------
+        Font font = new Font("SansSerif", Font.PLAIN, 14);
+        UIManager.put("Label.font", font);
+        UIManager.put("TextField.font", font);
+        UIManager.put("TextArea.font", font);
+        UIManager.put("Button.font", font);
+        UIManager.put("TabbedPane.font", new Font("SansSerif", Font.BOLD, 13));
+
+        // --------------------- Frame and Tabbed Pane Setup ---------------------
+        frame = new JFrame("FinanceEasy - Budget Tracker");
+        frame.setSize(500, 600);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        tabbedPane = new JTabbedPane();
+
+        budget = new Main.BudgetManager(0);
+        journal = new ExpenseJournal(ExpenseJournal.defaultDirectory());
+
+        frame.addWindowListener(new java.awt.event.WindowAdapter() {
+            public void windowOpened(java.awt.event.WindowEvent evt) {
+                STARTUP.mark("first frame");
+                // Saved expenses are loaded on a worker once the frame is up
+                loadSavedExpenses();
+            }
+
+            public void windowClosing(java.awt.event.WindowEvent evt) {
+                try {
+                    journal.close();
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(frame, "Could not save expenses: " + ex.getMessage());
+                }
+            }
+        });
+
+        // --------------------- Add Tabs to Tabbed Pane ---------------------
+        // Only the first tab is built now; the others are built the first time they are selected
+        tabbedPane.addTab("Expenses", buildExpensesTab());
+        addLazyTab("Calculators", this::buildCalculatorTab);
+        addLazyTab("Goal Tracker", this::buildGoalTab);
+        addLazyTab("Appearance", this::buildAppearanceTab);
+        tabbedPane.addChangeListener(e -> buildSelectedTab());
+
+        frame.add(tabbedPane);
+        STARTUP.mark("frame built");
+
+        // --------------------- Display Frame ---------------------
+        frame.setVisible(true);
+    }
+
+    // --------------------- Lazy Tabs ---------------------
+    private void addLazyTab(String title, java.util.function.Supplier<JPanel> builder) {
+        tabbedPane.addTab(title, new JPanel());
+        lazyTabs.put(title, builder);
+    }
+
+    private void buildSelectedTab() {
+        int index = tabbedPane.getSelectedIndex();
+        if (index < 0) {
+            return;
+        }
+        java.util.function.Supplier<JPanel> builder = lazyTabs.remove(tabbedPane.getTitleAt(index));
+        if (builder != null) {
+            long start = Metrics.start();
+            tabbedPane.setComponentAt(index, builder.get());
+            TAB_BUILD.stop(start);
+        }
+    }
+
+    // --------------------- Load Saved Expenses ---------------------
+    // Reading the snapshot, replaying the journal and rebuilding the totals are O(n), so
+    // they run on a worker. Until done() the expense buttons and the filter field stay
+    // disabled, and header clicks and Track are ignored: each of them reads the store
+    // (sorting and filtering fork it), so nothing on the EDT touches the budget while
+    // it is being filled. If the
+    // ledger can't be read (e.g. a stored currency has no exchange rates) editing stays
+    // off: the budget is partly filled and has no journal, so nothing entered would be saved.
+    private void loadSavedExpenses() {
+        new SwingWorker<Void, Void>() {
+            private String ratesError;
+
+            protected Void doInBackground() throws IOException {
+                try {
+                    FxTable rates = FxTable.loadDefault();
+                    if (rates != null) {
+                        budget.setFxRates(rates);
+                    }
+                } catch (IOException ex) {
+                    ratesError = ex.getMessage();
+                }
+                budget.attachJournal(journal);
+                return null;
+            }
+
+            protected void done() {
+                if (ratesError != null) {
+                    JOptionPane.showMessageDialog(frame, "Could not load exchange rates: " + ratesError);
+                }
+                try {
+                    get();
+                } catch (Exception ex) {
+                    Throwable cause = ex instanceof java.util.concurrent.ExecutionException ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(frame, "Could not load saved expenses: " + cause.getMessage()
+                            + "\nEditing is turned off until FinanceEasy is restarted with this fixed"
+                            + " (exchange rates are read from " + FxTable.defaultFile() + ").");
+                    statusLabel.setText("Saved expenses could not be loaded");
+                    return;
+                }
+                if (budget.getIncome() != 0) {
+                    income = budget.getIncome();
+                    incomeField.setText(String.valueOf(income));
+                }
+                budgetReady = true;
+                tableModel.rowsAdded(budget.getStore().size());
+                updateStatus();
+                setExpenseControlsEnabled(true);
+                STARTUP.mark("expenses loaded");
+                STARTUP.report(budget.getStore().size() + " saved expense(s), tabs built: Expenses");
+            }
+        }.execute();
+    }
+
+    private void setExpenseControlsEnabled(boolean enabled) {
+        addButton.setEnabled(enabled);
+        summaryButton.setEnabled(enabled);
+        importButton.setEnabled(enabled);
+        recurringButton.setEnabled(enabled);
+        filterField.setEnabled(enabled);
+    }
+
+    // --------------------- Expenses Tab ---------------------
+    private JPanel buildExpensesTab() {
+        // --------------------- Expense Input Panel ---------------------
+        JPanel topPanel = new JPanel(new GridLayout(8, 2));
+        topPanel.setBorder(BorderFactory.createTitledBorder("Enter Your Info"));
+
+        incomeField = new JTextField();
+        categoryField = new JTextField();
+        amountField = new JTextField();
+        currencyField = new JTextField(Money.BASE_CURRENCY);
+        dateField = new JTextField();
+        reportField = new JTextField(Money.BASE_CURRENCY);
+
+        JLabel incomeLabel = new JLabel("Monthly Income (" + Money.BASE_CURRENCY + "):");
+        JLabel categoryLabel = new JLabel("Expense Category:");
+        JLabel amountLabel = new JLabel("Amount:");
+        JLabel currencyLabel = new JLabel("Currency:");
+        JLabel dateLabel = new JLabel("Date (YYYY-MM-DD):");
+        JLabel reportLabel = new JLabel("Summary Currency:");
+        topPanel.add(incomeLabel);
+        topPanel.add(incomeField);
+        topPanel.add(categoryLabel);
+        topPanel.add(categoryField);
+        topPanel.add(amountLabel);
+        topPanel.add(amountField);
+        topPanel.add(currencyLabel);
+        topPanel.add(currencyField);
+        topPanel.add(dateLabel);
+        topPanel.add(dateField);
+        topPanel.add(reportLabel);
+        topPanel.add(reportField);
+
+        addButton = new JButton("Add Expense");
+        summaryButton = new JButton("Show Summary");
+        importButton = new JButton("Import CSV...");
+        recurringButton = new JButton("Recurring...");
+        styles.accent(addButton, BLUE, BLUE_HOVER);
+        styles.accent(summaryButton, BLUE, BLUE_HOVER);
+        styles.accent(importButton, BLUE, BLUE_HOVER);
+        styles.accent(recurringButton, BLUE, BLUE_HOVER);
+
+        topPanel.add(addButton);
+        topPanel.add(summaryButton);
+        topPanel.add(importButton);
+        topPanel.add(recurringButton);
+
+        styles.input(incomeField, categoryField, amountField, currencyField, dateField, reportField);
+        styles.text(incomeLabel, categoryLabel, amountLabel, currencyLabel, dateLabel, reportLabel);
+        styles.titled(topPanel);
+
+        // --------------------- Expense Table Panel ---------------------
+        // The table model reads rows from the budget on demand, so the whole ledger can be shown
+        tableModel = new ExpenseTableModel(budget);
+        expenseTable = new JTable(tableModel);
+        expenseTable.setFillsViewportHeight(true);
+        expenseTable.getTableHeader().setReorderingAllowed(false);
+        expenseTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                int column = expenseTable.columnAtPoint(evt.getPoint());
+                if (column >= 0 && budgetReady) {
+                    tableModel.toggleSort(expenseTable.convertColumnIndexToModel(column));
+                    updateStatus();
+                }
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(expenseTable);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Logged Expenses"));
+
+        filterField = new JTextField();
+        filterField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent evt) {
+                tableModel.setFilter(filterField.getText());
+            }
+
+            public void removeUpdate(javax.swing.event.DocumentEvent evt) {
+                tableModel.setFilter(filterField.getText());
+            }
+
+            public void changedUpdate(javax.swing.event.DocumentEvent evt) {
+                tableModel.setFilter(filterField.getText());
+            }
+        });
+        JPanel filterPanel = new JPanel(new BorderLayout(5, 0));
+        filterPanel.add(new JLabel("Filter by category:"), BorderLayout.WEST);
+        filterPanel.add(filterField, BorderLayout.CENTER);
+        setExpenseControlsEnabled(false); // until saved expenses are loaded
+
+        statusLabel = new JLabel("Loading saved expenses...");
+
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.add(filterPanel, BorderLayout.NORTH);
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
+        tablePanel.add(statusLabel, BorderLayout.SOUTH);
+
+        styles.surface(expenseTable, tablePanel);
+        styles.titled(scrollPane);
+
+        // Wrap expense components into one panel for the "Expenses" tab
+        JPanel expensePanel = new JPanel(new BorderLayout());
+        expensePanel.add(topPanel, BorderLayout.NORTH);
+        expensePanel.add(tablePanel, BorderLayout.CENTER);
+        styles.surface(expensePanel, topPanel);
+
+        // --------------------- "Add Expense" Button Logic ---------------------
+        addButton.addActionListener(timed("gui.add", e -> {
+            try {
+                if (income == 0) {
+                    long incomeCents = Money.parse(incomeField.getText());
+                    income = Money.toDollars(incomeCents);
+                    budget.setIncomeCents(incomeCents);
+                }
+
+                String category = categoryField.getText();
+                long amount = Money.parse(amountField.getText());
+                String currency = Money.currencyCode(currencyField.getText());
+                LocalDate date = LocalDate.parse(dateField.getText());
+                if (!budget.hasRates(currency)) {
+                    JOptionPane.showMessageDialog(frame, "No exchange rates for " + currency + " in " + FxTable.defaultFile());
+                    return;
+                }
+
+                Expense expense = Expense.ofCents(category, amount, currency, date);
+                budget.addExpense(expense);
+
+                tableModel.rowsAdded(budget.getStore().size());
+                updateStatus();
+                updateCompletion();
+
+                // Clear input fields
+                categoryField.setText("");
+                amountField.setText("");
+                dateField.setText("");
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(frame, "Please enter valid inputs.");
+            }
+        }));
+
+        // --------------------- "Import CSV" Button Logic ---------------------
+        importButton.addActionListener(timed("gui.import", e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Import bank statement (Date,Category,Amount)");
+            if (chooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            java.nio.file.Path file = chooser.getSelectedFile().toPath();
+
+            // Parsing, appending and the snapshot after it are all O(rows), so the whole import
+            // runs on a worker, round by round. Meanwhile the table shows a fork taken here and
+            // every control that reads the budget is off, as while the ledger loads; done()
+            // only points the table back at the budget.
+            budgetReady = false;
+            setExpenseControlsEnabled(false);
+            tableModel.holdRows();
+            new SwingWorker<CsvImporter.Result, Long>() {
+                protected CsvImporter.Result doInBackground() throws Exception {
+                    return new CsvImporter().importFile(file, budget, this::publish);
+                }
+
+                protected void process(java.util.List<Long> counts) {
+                    statusLabel.setText("Importing " + file.getFileName() + "... " + counts.get(counts.size() - 1) + " expense(s)");
+                }
+
+                protected void done() {
+                    budgetReady = true;
+                    setExpenseControlsEnabled(true);
+                    tableModel.rowsAdded(budget.getStore().size());
+                    updateStatus();
+                    try {
+                        CsvImporter.Result result = get();
+                        updateCompletion();
+                        statusLabel.setText(statusLabel.getText() + " | " + result);
+                    } catch (Exception ex) {
+                        Throwable cause = ex instanceof java.util.concurrent.ExecutionException ? ex.getCause() : ex;
+                        JOptionPane.showMessageDialog(frame, "Import failed: " + cause.getMessage());
+                    }
+                }
+            }.execute();
+        }));
+
+        // --------------------- "Recurring" Button Logic ---------------------
+        recurringButton.addActionListener(timed("gui.recurring", e -> editRecurringRules()));
+
+        // --------------------- "Show Summary" Button Logic ---------------------
+        summaryButton.addActionListener(timed("gui.summary", e -> {
+            try {
+                budget.setReportingCurrency(reportField.getText());
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(frame, ex.getMessage());
+                return;
+            }
+            // Build the text on a background thread from a copy-on-write fork taken here on the
+            // EDT, so expenses added meanwhile can't change what it reads; only the dialog is
+            // shown on the EDT
+            summaryButton.setEnabled(false);
+            Main.BudgetManager snapshot = budget.fork();
+            new SwingWorker<String, Void>() {
+                protected String doInBackground() {
+                    return buildSummary(snapshot, YearMonth.now());
+                }
+
+                protected void done() {
+                    summaryButton.setEnabled(true);
+                    try {
+                        JOptionPane.showMessageDialog(frame, get(), "Monthly Budget Summary", JOptionPane.INFORMATION_MESSAGE);
+                    } catch (Exception ex) {
+                        JOptionPane.showMessageDialog(frame, "Could not build the summary.");
+                    }
+                }
+            }.execute();
+        }));
+
+        return expensePanel;
+    }
+
+    // --------------------- Calculator Tab UI ---------------------
+    private JPanel buildCalculatorTab() {
+        JPanel calculatorPanel = new JPanel();
+        calculatorPanel.setLayout(new GridLayout(3, 1, 10, 10)); // 3 stacked buttons
+
+        JButton compoundButton = new JButton("Compound Interest");
+        JButton taxButton = new JButton("Tax Estimator");
+        JButton loanButton = new JButton("Loan Calculator");
+
+        styles.accent(compoundButton, BLUE, BLUE_HOVER);
+        styles.accent(taxButton, BLUE, BLUE_HOVER);
+        styles.accent(loanButton, BLUE, BLUE_HOVER);
+        styles.surface(calculatorPanel);
+
+        calculatorPanel.add(compoundButton);
+        calculatorPanel.add(taxButton);
+        calculatorPanel.add(loanButton);
+
+        // --------------------- Calculator Button Functionality ---------------------
+
+        // Compound Interest Calculator
+        compoundButton.addActionListener(timed("gui.compound", e -> {
+            try {
+                String pStr = JOptionPane.showInputDialog(frame, "Enter principal amount:");
+                String rStr = JOptionPane.showInputDialog(frame, "Enter annual interest rate (%):");
+                String nStr = JOptionPane.showInputDialog(frame, "Times compounded per year:");
+                String tStr = JOptionPane.showInputDialog(frame, "Number of years:");
+
+                long P = Money.parse(pStr);
+                double r = Double.parseDouble(rStr) / 100.0;
+                int n = Integer.parseInt(nStr);
+                int t = Integer.parseInt(tStr);
+
+                long result = Calculators.compoundInterestCents(P, r, n, t, RoundingMode.HALF_EVEN);
+                JOptionPane.showMessageDialog(frame, "Future Value: " + currencySymbol() + Money.toString(result));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(frame, "Invalid input.");
+            }
+        }));
+
+        // Tax Estimator Calculator
+        taxButton.addActionListener(timed("gui.tax", e -> {
+            try {
+                String incomeStr = JOptionPane.showInputDialog(frame, "Enter income:");
+                String rateStr = JOptionPane.showInputDialog(frame,
+                        "Enter tax rate (%) or filing status (" + TaxBrackets.profileNames() + "):");
+
+                long income = Money.parse(incomeStr);
+                TaxBrackets.Profile profile = TaxBrackets.profile(rateStr);
+                if (profile != null) {
+                    // Progressive brackets after the standard deduction
+                    long taxable = profile.taxableCents(income, 0);
+                    long tax = profile.getBrackets().taxCents(taxable, RoundingMode.HALF_EVEN);
+                    JOptionPane.showMessageDialog(frame, "Estimated Tax: " + currencySymbol() + Money.toString(tax)
+                            + "\nTaxable Income: " + currencySymbol() + Money.toString(taxable)
+                            + "\nMarginal Rate: " + Math.round(profile.getBrackets().marginalRate(taxable) * 100) + "%");
+                    return;
+                }
+                double rate = Double.parseDouble(rateStr) / 100.0;
+
+                long tax = Calculators.estimateTaxCents(income, rate, RoundingMode.HALF_EVEN);
+                JOptionPane.showMessageDialog(frame, "Estimated Tax: " + currencySymbol() + Money.toString(tax));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(frame, "Invalid input.");
+            }
+        }));
+
+        // Loan Payment Calculator
+        loanButton.addActionListener(timed("gui.loan", e -> {
+            try {
+                String amountStr = JOptionPane.showInputDialog(frame, "Enter loan amount:");
+                String rateStr = JOptionPane.showInputDialog(frame, "Enter annual interest rate (%):");
+                String yearsStr = JOptionPane.showInputDialog(frame, "Enter number of years:");
+
+                long amount = Money.parse(amountStr);
+                double rate = Double.parseDouble(rateStr) / 100.0;
+                int years = Integer.parseInt(yearsStr);
+
+                // Lenders round the payment up to the next cent
+                long monthly = Calculators.monthlyLoanPaymentCents(amount, rate, years, RoundingMode.HALF_UP);
+                JOptionPane.showMessageDialog(frame, "Monthly Payment: " + currencySymbol() + Money.toString(monthly));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(frame, "Invalid input.");
+            }
+        }));
+
+        return calculatorPanel;
+    }
+
+    // --------------------- Goal Tracker Tab ---------------------
+    private JPanel buildGoalTab() {
+        JPanel goalPanel = new JPanel();
+        goalPanel.setLayout(new GridLayout(9, 2, 10, 10));
+
+        JTextField goalAmountField = new JTextField();
+        JTextField goalDateField = new JTextField();
+        JTextField currentSavingsField = new JTextField();
+
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+
+        JLabel daysLeftLabel = new JLabel("");
+        JLabel chanceLabel = new JLabel("");
+        JLabel requiredLabel = new JLabel("");
+        completionLabel = new JLabel("");
+
+        goalPanel.add(new JLabel("Savings Goal (" + Money.BASE_CURRENCY + "):"));
+        goalPanel.add(goalAmountField);
+
+        goalPanel.add(new JLabel("Target Date (YYYY-MM-DD):"));
+        goalPanel.add(goalDateField);
+
+        goalPanel.add(new JLabel("Current Savings (" + Money.BASE_CURRENCY + "):"));
+        goalPanel.add(currentSavingsField);
+
+        goalPanel.add(new JLabel("Progress:"));
+        goalPanel.add(progressBar);
+
+        goalPanel.add(new JLabel("Days Remaining:"));
+        goalPanel.add(daysLeftLabel);
+
+        goalPanel.add(new JLabel("Needed Monthly Saving:"));
+        goalPanel.add(requiredLabel);
+
+        goalPanel.add(new JLabel("Chance of Reaching Goal:"));
+        goalPanel.add(chanceLabel);
+
+        goalPanel.add(new JLabel("Projected Completion:"));
+        goalPanel.add(completionLabel);
+
+        JButton trackButton = new JButton("Track Progress");
+        styles.accent(trackButton, new Color(46, 139, 87), new Color(30, 120, 70));
+
+        goalPanel.add(new JLabel("")); // Filler for grid
+        goalPanel.add(trackButton);
+
+        // Everything but the button takes the theme colors
+        styles.surface(goalPanel);
+        for (Component c : goalPanel.getComponents()) {
+            if (c != trackButton) {
+                styles.surface(c);
+            }
+        }
+
+        trackButton.addActionListener(timed("gui.track", e -> {
+            if (!budgetReady) {
+                JOptionPane.showMessageDialog(frame, "Saved expenses are not loaded.");
+                return;
+            }
+            try {
+                double goalAmount = Double.parseDouble(goalAmountField.getText());
+                double currentSavings = Double.parseDouble(currentSavingsField.getText());
+                LocalDate goalDate = LocalDate.parse(goalDateField.getText());
+
+                double progress = (currentSavings / goalAmount) * 100;
+                progress = Math.min(progress, 100); // cap at 100%
+
+                progressBar.setValue((int) progress);
+
+                long daysLeft = LocalDate.now().until(goalDate).getDays();
+                daysLeftLabel.setText(daysLeft + " day(s) left");
+
+                // Monte Carlo projection from the logged expenses, run off the Event Dispatch Thread
+                chanceLabel.setText("Calculating...");
+                Main.GoalTracker tracker = new Main.GoalTracker(goalAmount, goalDate);
+                double required = tracker.getRequiredMonthlyContribution(currentSavings, Main.GoalTracker.EXPECTED_RETURN, LocalDate.now());
+                requiredLabel.setText(String.format("%s%.2f at %.0f%% a year", Money.symbol(Money.BASE_CURRENCY), required,
+                        Main.GoalTracker.EXPECTED_RETURN * 100));
+                activeGoal = tracker;
+                activeSavings = currentSavings;
+                updateCompletion();
+                // The leftover history is read here on the EDT; the worker only gets the copy
+                double[] leftovers = budget.getMonthlyLeftovers();
+                new SwingWorker<GoalProjection.Result, Void>() {
+                    protected GoalProjection.Result doInBackground() {
+                        return tracker.project(currentSavings, leftovers, 42);
+                    }
+
+                    protected void done() {
+                        try {
+                            GoalProjection.Result result = get();
+                            double[] bands = result.getBands();
+                            chanceLabel.setText(String.format("%.1f%% (median %s%.0f)", result.getProbability() * 100,
+                                    Money.symbol(Money.BASE_CURRENCY), bands[2]));
+                        } catch (Exception ex) {
+                            chanceLabel.setText("");
+                        }
+                    }
+                }.execute();
+
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(frame, "Please enter valid numbers and a correct date format.");
+            }
+        }));
+
+        return goalPanel;
+    }
+
+    // --------------------- Appearance Tab ---------------------
+    private JPanel buildAppearanceTab() {
+        JPanel appearancePanel = new JPanel(new GridLayout(4, 1, 10, 10));
+        appearancePanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        String[] themes = {"Light", "Dark"};
+        JComboBox<String> themeSelector = new JComboBox<>(themes);
+
+        String[] colors = {"Blue", "Green", "Purple", "Orange"};
+        JComboBox<String> colorSelector = new JComboBox<>(colors);
+
+        JButton applyButton = new JButton("Apply Settings");
+        styles.accent(applyButton, null, null); // default look until a color is applied
+
+        JLabel themeLabel = new JLabel("Select Theme:");
+        JLabel colorLabel = new JLabel("Select Button Color:");
+        appearancePanel.add(themeLabel);
+        appearancePanel.add(themeSelector);
+        appearancePanel.add(colorLabel);
+        appearancePanel.add(colorSelector);
+        appearancePanel.add(applyButton);
+        styles.surface(appearancePanel, themeLabel, themeSelector, colorLabel, colorSelector);
+
+        // --------------------- Apply Button Logic ---------------------
+        applyButton.addActionListener(timed("gui.apply", e -> {
+            String selectedTheme = (String) themeSelector.getSelectedItem();
+            String selectedColor = (String) colorSelector.getSelectedItem();
+
+            Color bgColor;
+            Color textColor = Color.BLACK;
+
+            // Theme logic
+            if (selectedTheme.equals("Dark")) {
+                bgColor = new Color(45, 45, 45);
+                textColor = Color.WHITE;
+            } else {
+                bgColor = Color.WHITE;
+            }
+
+            // Button color logic
+            Color selectedBase = switch (selectedColor) {
+                case "Green" -> new Color(46, 139, 87);
+                case "Purple" -> new Color(138, 43, 226);
+                case "Orange" -> new Color(255, 140, 0);
+                default -> BLUE;
+            };
+
+            // Only the registered components are restyled, including tabs not built yet
+            styles.apply(bgColor, textColor, selectedBase);
+        }));
+
+        return appearancePanel;
+    }
+
+    // --------------------- Recurring Expenses Dialog ---------------------
+    // Lists the rules; either adds one from the fields under the list or removes the
+    // selected one. Amounts are in the base currency.
+    private void editRecurringRules() {
+        DefaultListModel<RecurringRule> ruleModel = new DefaultListModel<>();
+        for (RecurringRule rule : budget.getRecurringRules()) {
+            ruleModel.addElement(rule);
+        }
+        JList<RecurringRule> ruleList = new JList<>(ruleModel);
+        ruleList.setVisibleRowCount(5);
+
+        JTextField ruleCategory = new JTextField();
+        JTextField ruleAmount = new JTextField();
+        JComboBox<RecurringRule.Cadence> cadence = new JComboBox<>(RecurringRule.Cadence.values());
+        cadence.setSelectedItem(RecurringRule.Cadence.MONTHLY);
+        JTextField interval = new JTextField("1");
+        JTextField startField = new JTextField(LocalDate.now().toString());
+        JTextField endField = new JTextField();
+
+        JPanel fields = new JPanel(new GridLayout(6, 2));
+        fields.add(new JLabel("Category:"));
+        fields.add(ruleCategory);
+        fields.add(new JLabel("Amount (" + Money.BASE_CURRENCY + "):"));
+        fields.add(ruleAmount);
+        fields.add(new JLabel("Repeats:"));
+        fields.add(cadence);
+        fields.add(new JLabel("Every (1 = each time):"));
+        fields.add(interval);
+        fields.add(new JLabel("Start (YYYY-MM-DD):"));
+        fields.add(startField);
+        fields.add(new JLabel("End (blank = never):"));
+        fields.add(endField);
+
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.add(new JScrollPane(ruleList), BorderLayout.NORTH);
+        panel.add(fields, BorderLayout.CENTER);
+
+        Object[] options = {"Add Rule", "Remove Selected", "Close"};
+        int choice = JOptionPane.showOptionDialog(frame, panel, "Recurring Expenses", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.PLAIN_MESSAGE, null, options, options[2]);
+        try {
+            if (choice == 0) {
+                String category = ruleCategory.getText().trim();
+                if (category.isEmpty()) {
+                    throw new IllegalArgumentException("Category is empty");
+                }
+                LocalDate end = endField.getText().isBlank() ? null : LocalDate.parse(endField.getText().trim());
+                budget.addRecurring(new RecurringRule(category, Money.parse(ruleAmount.getText()),
+                        (RecurringRule.Cadence) cadence.getSelectedItem(), Integer.parseInt(interval.getText().trim()),
+                        LocalDate.parse(startField.getText().trim()), end));
+            } else if (choice == 1 && ruleList.getSelectedValue() != null) {
+                budget.removeRecurring(ruleList.getSelectedValue());
+            } else {
+                return;
+            }
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(frame, "Please enter valid inputs.");
+            return;
+        }
+        updateStatus();
+        updateCompletion();
+    }
+
+    // --------------------- Utility: Status Line ---------------------
+    private void updateStatus() {
+        String sort = tableModel.getSortDescription();
+        int rules = budget.getRecurringRules().size();
+        statusLabel.setText(budget.getStore().size() + " expense(s)" + (rules == 0 ? "" : ", " + rules + " recurring rule(s)")
+                + (sort.isEmpty() ? "" : ", " + sort));
+    }
+
+    // --------------------- Utility: Goal Completion ---------------------
+    // O(1) from the rolling 30-day spend, so it can run on the EDT after every expense
+    private void updateCompletion() {
+        if (activeGoal == null) {
+            return;
+        }
+        LocalDate completion = activeGoal.projectCompletionDate(activeSavings, budget, LocalDate.now());
+        if (completion == null) {
+            completionLabel.setText("Not reached at current spending");
+        } else {
+            completionLabel.setText(completion + (completion.isAfter(activeGoal.getGoalDate()) ? " (behind)" : " (on track)"));
+        }
+    }
+
+    // --------------------- Utility: Summary Text ---------------------
+    // Totals are kept up to date (in cents) by the budget manager, so nothing is rescanned here
+    // In the budget's reporting currency: any other than the base currency costs one bulk
+    // conversion pass for the totals and one for the month
+    static String buildSummary(Main.BudgetManager budget, YearMonth thisMonth) {
+        long start = Metrics.start();
+        String currency = budget.getReportingCurrency();
+        String symbol = Money.symbol(currency);
+        HashMap<String, Long> categoryTotals = budget.getCentsByCategory(currency);
+        long total = 0;
+        for (long cents : categoryTotals.values()) {
+            total += cents;
+        }
+
+        StringBuilder message = new StringBuilder();
+        Money.append(message.append("Total Spent: ").append(symbol), total).append("\n");
+        Money.append(message.append("Remaining Budget: ").append(symbol), budget.getIncomeCents(currency) - total).append("\n");
+        Money.append(message.append("Spent in ").append(thisMonth).append(": ").append(symbol), budget.getTotalCents(thisMonth, currency)).append("\n\n");
+        message.append("Expenses by Category:\n");
+
+        for (String cat : categoryTotals.keySet()) {
+            Money.append(message.append("- ").append(cat).append(": ").append(symbol), categoryTotals.get(cat)).append("\n");
+        }
+        SUMMARY_RENDER.stop(start);
+        return message.toString();
+    }
+
+    // Calculator results are shown in the currency the summaries use
+    private String currencySymbol() {
+        return Money.symbol(budget.getReportingCurrency());
+    }
+
+    // --------------------- Utility: Timed Actions ---------------------
+    // Records how long a button handler runs (see Metrics); free while metrics are off
+    private static ActionListener timed(String name, ActionListener listener) {
+        Metrics.Timer timer = Metrics.timer(name);
+        return e -> {
+            long start = Metrics.start();
+            try {
+                listener.actionPerformed(e);
+            } finally {
+                timer.stop(start);
+            }
+        };
+    }
+
+    // --------------------- Startup Timing ---------------------
+    // With -Dfinanceeasy.startupTiming=true, prints how long each startup phase took,
+    // from JVM start to the saved expenses being on screen
+    static final class StartupTimer {
+        private final boolean enabled = Boolean.getBoolean("financeeasy.startupTiming");
+        private final ArrayList<String> phases = new ArrayList<>();
+        private final ArrayList<Long> times = new ArrayList<>();
+        private boolean reported = false;
+
+        void mark(String phase) {
+            if (enabled) {
+                phases.add(phase);
+                times.add(System.nanoTime());
+            }
+        }
+
+        void report(String note) {
+            if (!enabled || reported || times.isEmpty()) {
+                return;
+            }
+            reported = true;
+            long jvmStartMillis = java.lang.management.ManagementFactory.getRuntimeMXBean().getStartTime();
+            long mainMillis = System.currentTimeMillis() - (System.nanoTime() - times.get(0)) / 1_000_000;
+            StringBuilder sb = new StringBuilder("Startup timing (").append(note).append("):\n");
+            sb.append(String.format("  %-16s %6d ms%n", "JVM -> " + phases.get(0), mainMillis - jvmStartMillis));
+            for (int i = 1; i < phases.size(); i++) {
+                sb.append(String.format("  %-16s %6.1f ms%n", phases.get(i), (times.get(i) - times.get(i - 1)) / 1e6));
+            }
+            sb.append(String.format("  %-16s %6.1f ms since main, %d ms since JVM start%n", "total",
+                    (times.get(times.size() - 1) - times.get(0)) / 1e6,
+                    mainMillis - jvmStartMillis + (times.get(times.size() - 1) - times.get(0)) / 1_000_000));
+            System.err.print(sb);
+        }
+    }
+
+    public static void main(String[] args) {
+        STARTUP.mark("main");
+        // Registering the MBeans starts the JMX server, which is slow on a cold JVM
+        Thread metrics = new Thread(Metrics::install, "metrics-install");
+        metrics.setDaemon(true);
+        metrics.start();
+        // Swing components must be created on the Event Dispatch Thread
+        SwingUtilities.invokeLater(MainGUI::new);
+    }
+}
@@ -0,0 +1,233 @@
+package financeeasy;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+// --------------------- Metrics ---------------------
+// Latency timers around the hot paths (adding expenses, summaries, calculators and
+// GUI actions). Off by default; switched on with -Dfinanceeasy.metrics=true or at
+// runtime through JMX. While off, a timed call costs one volatile read and a branch:
+//
+//   long start = Metrics.start();
+//   ... work ...
+//   Metrics.ADD_EXPENSE.stop(start);
+//
+// install() (called from both main methods) publishes every timer as a JMX MXBean
+// under "financeeasy:type=Latency,name=<timer>", plus "financeeasy:type=Metrics" with
+// the on/off switch. With -Dfinanceeasy.metrics.dump=<file> (or "-" for stderr) all
+// timers are also appended to that file every financeeasy.metrics.interval seconds
+// (default 60).
+public class Metrics {
+    private static volatile boolean enabled = Boolean.getBoolean("financeeasy.metrics");
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static volatile boolean installed = false;
+    private static ScheduledExecutorService dumper;
+
+    public static final Timer ADD_EXPENSE = timer("addExpense");
+    public static final Timer SUMMARY = timer("summary");
+    public static final Timer CALCULATOR_LOAN = timer("calculator.loan");
+    public static final Timer CALCULATOR_COMPOUND = timer("calculator.compound");
+    public static final Timer CALCULATOR_TAX = timer("calculator.tax");
+
+    // --------------------- MXBean Interfaces ---------------------
+    public interface LatencyMXBean {
+        String getName();
+
+        long getCount();
+
+        double getMeanMicros();
+
+        double getP50Micros();
+
+        double getP90Micros();
+
+        double getP99Micros();
+
+        double getMaxMicros();
+    }
+
+    public interface ControlMXBean {
+        boolean isEnabled();
+
+        void setEnabled(boolean enabled);
+
+        String[] getTimerNames();
+
+        // Every timer, one per line
+        String dump();
+
+        void reset();
+    }
+
+    // --------------------- Timers ---------------------
+    // A named histogram; stop() records the time since a Metrics.start() value
+    public static final class Timer {
+        private final LatencyHistogram histogram;
+
+        private Timer(String name) {
+            histogram = new LatencyHistogram(name);
+        }
+
+        public void stop(long start) {
+            if (start != 0) {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    // 0 when metrics are off, so stop() can skip the second clock read
+    public static long start() {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        return now == 0 ? 1 : now;
+    }
+
+    public static Timer timer(String name) {
+        Timer timer = TIMERS.get(name);
+        if (timer == null) {
+            Timer created = new Timer(name);
+            timer = TIMERS.putIfAbsent(name, created);
+            if (timer == null) {
+                timer = created;
+                if (installed) {
+                    register(created);
+                }
+            }
+        }
+        return timer;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static void reset() {
+        for (Timer timer : TIMERS.values()) {
+            timer.histogram.reset();
+        }
+    }
+
+    public static String dump() {
+        List<String> names = new ArrayList<>(TIMERS.keySet());
+        names.sort(null);
+        StringBuilder sb = new StringBuilder();
+        for (String name : names) {
+            sb.append(TIMERS.get(name).histogram).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // --------------------- Publishing ---------------------
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new StandardMBean(new Control(), ControlMXBean.class, true), new ObjectName("financeeasy:type=Metrics"));
+        } catch (JMException ex) {
+            System.err.println("Could not register metrics MBean: " + ex.getMessage());
+        }
+        for (Timer timer : TIMERS.values()) {
+            register(timer);
+        }
+        String dumpFile = System.getProperty("financeeasy.metrics.dump");
+        if (dumpFile != null) {
+            startDump(dumpFile.equals("-") ? null : Paths.get(dumpFile), Long.getLong("financeeasy.metrics.interval", 60));
+        }
+    }
+
+    private static void register(Timer timer) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName("financeeasy:type=Latency,name=" + ObjectName.quote(timer.histogram.getName()));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(timer.histogram, LatencyMXBean.class, true), name);
+            }
+        } catch (JMException ex) {
+            System.err.println("Could not register timer " + timer.histogram.getName() + ": " + ex.getMessage());
+        }
+    }
+
+    // Appends a timestamped dump to file (stderr if null) every intervalSeconds, while enabled
+    public static synchronized void startDump(Path file, long intervalSeconds) {
+        if (dumper != null) {
+            dumper.shutdownNow();
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> writeDump(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private static void writeDump(Path file) {
+        if (!enabled) {
+            return;
+        }
+        String text = "# " + LocalDateTime.now() + "\n" + dump();
+        if (file == null) {
+            System.err.print(text);
+            return;
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(text);
+        } catch (IOException ex) {
+            System.err.println("Could not write metrics to " + file + ": " + ex.getMessage());
+        }
+    }
+
+    private static final class Control implements ControlMXBean {
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        public void setEnabled(boolean on) {
+            Metrics.setEnabled(on);
+        }
+
+        public String[] getTimerNames() {
+            return TIMERS.keySet().stream().sorted().toArray(String[]::new);
+        }
+
+        public String dump() {
+            return Metrics.dump();
+        }
+
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
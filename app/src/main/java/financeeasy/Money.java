@@ -0,0 +1,195 @@
+package financeeasy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Locale;
+
+// --------------------- Money ---------------------
+// Amounts are kept as a long number of cents everywhere money is stored or summed.
+// Sums of longs are exact and do not depend on the order the amounts were added in,
+// so totals are reproducible to the cent no matter how long the ledger gets.
+//
+// Doubles are only used at the edges: values typed by the user, and the results of
+// rate formulas (interest, loan payments), which are rounded back to cents with an
+// explicit RoundingMode. Formatting writes straight into a caller's buffer.
+public final class Money {
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+
+    // Returned by the allocation-free parsers for text that is not an amount
+    static final long INVALID = Long.MIN_VALUE;
+
+    // Longest formatted amount: "-92233720368547758.08"
+    public static final int MAX_LENGTH = 21;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private Money() {
+    }
+
+    // --------------------- Conversions ---------------------
+    public static long fromDollars(double dollars) {
+        return fromDollars(dollars, DEFAULT_ROUNDING);
+    }
+
+    // Rounds to the cent using the decimal the user typed: 0.145 becomes 15 cents
+    // with HALF_UP even though the double itself is slightly below 0.145
+    public static long fromDollars(double dollars, RoundingMode mode) {
+        double cents = dollars * 100;
+        double whole = Math.rint(cents);
+        if (Math.abs(cents - whole) <= Math.ulp(cents) && Math.abs(whole) < 0x1p53) {
+            return (long) whole; // already a whole number of cents (the usual case)
+        }
+        if (Double.isNaN(dollars) || Double.isInfinite(dollars)) {
+            throw new ArithmeticException("Not an amount: " + dollars);
+        }
+        return BigDecimal.valueOf(dollars).movePointRight(2).setScale(0, mode).longValueExact();
+    }
+
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+    // Rounds a value that is already in cents (e.g. principal cents times a growth factor)
+    public static long round(double cents, RoundingMode mode) {
+        if (!(Math.abs(cents) < 0x1p62)) {
+            throw new ArithmeticException("Amount out of range: " + cents);
+        }
+        double floor = Math.floor(cents);
+        double fraction = cents - floor; // exact
+        long base = (long) floor;
+        if (fraction == 0) {
+            return base;
+        }
+        return switch (mode) {
+            case FLOOR -> base;
+            case CEILING -> base + 1;
+            case DOWN -> cents > 0 ? base : base + 1;
+            case UP -> cents > 0 ? base + 1 : base;
+            case HALF_UP -> fraction > 0.5 || (fraction == 0.5 && cents > 0) ? base + 1 : base;
+            case HALF_DOWN -> fraction > 0.5 || (fraction == 0.5 && cents < 0) ? base + 1 : base;
+            case HALF_EVEN -> fraction > 0.5 || (fraction == 0.5 && (base & 1) != 0) ? base + 1 : base;
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary: " + cents);
+        };
+    }
+
+    // --------------------- Parsing ---------------------
+    // Accepts 12.50, -3, 1,234.56, $9.99 or (45.00) for a negative; extra decimals
+    // are rounded half-even. Throws NumberFormatException for anything else.
+    public static long parse(CharSequence text) {
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = -1;
+        boolean negative = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digitCount == 18) {
+                    throw new NumberFormatException("Amount too large: " + text);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digitCount++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c == '-' || c == '(') {
+                negative = true;
+            } else if (c != ',' && c != '$' && c != ' ' && c != ')' && c != '+') {
+                throw new NumberFormatException("Not an amount: " + text);
+            }
+        }
+        long cents = digitCount == 0 ? INVALID : toCents(mantissa, fractionDigits, negative);
+        if (cents == INVALID) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        return cents;
+    }
+
+    // mantissa with fractionDigits decimals (-1 for none) to cents, half-even; INVALID on overflow
+    static long toCents(long mantissa, int fractionDigits, boolean negative) {
+        long cents;
+        if (fractionDigits <= 2) {
+            long scale = POWERS_OF_TEN[2 - Math.max(fractionDigits, 0)];
+            if (mantissa > Long.MAX_VALUE / scale) {
+                return INVALID;
+            }
+            cents = mantissa * scale;
+        } else {
+            long divisor = POWERS_OF_TEN[fractionDigits - 2];
+            cents = mantissa / divisor;
+            long twice = (mantissa % divisor) * 2;
+            if (twice > divisor || (twice == divisor && (cents & 1) != 0)) {
+                cents++;
+            }
+        }
+        return negative ? -cents : cents;
+    }
+
+    // --------------------- Formatting ---------------------
+    // Writes e.g. "-1234.05" into buf at offset and returns the offset after it.
+    // buf needs MAX_LENGTH free chars; nothing is allocated.
+    public static int format(long cents, char[] buf, int offset) {
+        long n = cents < 0 ? cents : -cents; // work on the negative side so Long.MIN_VALUE fits
+        int digits = 1;
+        for (long t = n / 10; t != 0; t /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, 3); // at least "0.05"
+        int end = offset + digits + 1 + (cents < 0 ? 1 : 0);
+        int pos = end;
+        for (int i = 0; i < digits; i++) {
+            if (i == 2) {
+                buf[--pos] = '.';
+            }
+            buf[--pos] = (char) ('0' - n % 10);
+            n /= 10;
+        }
+        if (cents < 0) {
+            buf[--pos] = '-';
+        }
+        return end;
+    }
+
+    public static StringBuilder append(StringBuilder out, long cents) {
+        long dollars = cents / 100;
+        int rest = (int) Math.abs(cents % 100);
+        if (cents < 0) {
+            out.append('-');
+        }
+        return out.append(Math.abs(dollars)).append('.').append((char) ('0' + rest / 10)).append((char) ('0' + rest % 10));
+    }
+
+    public static String toString(long cents) {
+        return append(new StringBuilder(MAX_LENGTH), cents).toString();
+    }
+
+    // --------------------- Currencies ---------------------
+    // Amounts without an explicit currency are in this one. Amounts in other currencies
+    // are still kept as hundredths of a unit, whatever the currency's real minor unit.
+    public static final String BASE_CURRENCY = "USD";
+
+    // Upper-cased three-letter ISO 4217 code
+    public static String currencyCode(String text) {
+        String code = text.trim().toUpperCase(Locale.ROOT);
+        if (code.length() != 3 || !code.chars().allMatch(c -> c >= 'A' && c <= 'Z')) {
+            throw new IllegalArgumentException("Invalid currency code: " + text);
+        }
+        return code;
+    }
+
+    // "$", "€", "£"... or the code and a space where there is no shorter symbol ("CHF ")
+    public static String symbol(String currency) {
+        try {
+            String symbol = Currency.getInstance(currency).getSymbol(Locale.US);
+            return symbol.equals(currency) ? currency + " " : symbol;
+        } catch (IllegalArgumentException ex) {
+            return currency + " ";
+        }
+    }
+}
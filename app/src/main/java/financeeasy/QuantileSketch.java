@@ -0,0 +1,185 @@
+package financeeasy;
+
+import java.util.Collection;
+
+// --------------------- Quantile Sketch ---------------------
+// Mergeable, memory-bounded quantile estimates (median, p90, p99...) over amounts
+// in cents, in the style of DDSketch: values are counted in logarithmic buckets
+// whose bounds grow by gamma = (1 + a) / (1 - a), where a is the relative accuracy.
+//
+// Error bound: quantile(q) is within a * |true value| of the exact q-quantile of
+// the values added (a = 1% by default), before rounding to a whole cent. Memory depends on the range of values,
+// not how many there are: cents from $0.01 to $10M fit in about 1,000 buckets.
+//
+// Unlike t-digest or KLL, counts are exact per bucket, so an expense can be taken
+// out again (remove) and two sketches merge by adding counts, in any order or in
+// parallel, with the same result.
+public class QuantileSketch {
+    public static final double DEFAULT_ACCURACY = 0.01;
+
+    private final double accuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    // Buckets for positive values and for the magnitude of negative ones (refunds)
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeroCount = 0;
+    private long count = 0;
+
+    public QuantileSketch() {
+        this(DEFAULT_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.accuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    // --------------------- Buckets ---------------------
+    // Counts for a contiguous range of bucket indices, grown on either side as needed
+    private static final class Buckets {
+        long[] counts = new long[0];
+        int offset = 0; // bucket index of counts[0]
+
+        void add(int index, long delta) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            } else if (index < offset || index >= offset + counts.length) {
+                int low = Math.min(offset, index);
+                int high = Math.max(offset + counts.length, index + 1);
+                int length = Math.max(high - low, counts.length * 2);
+                if (index < offset) {
+                    low = high - length; // leave room below, where we grew
+                }
+                long[] grown = new long[length];
+                System.arraycopy(counts, 0, grown, offset - low, counts.length);
+                counts = grown;
+                offset = low;
+            }
+            counts[index - offset] += delta;
+        }
+
+        void merge(Buckets other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        void copyFrom(Buckets other) {
+            counts = other.counts.clone();
+            offset = other.offset;
+        }
+    }
+
+    // --------------------- Updates ---------------------
+    public void add(long cents) {
+        update(cents, 1);
+    }
+
+    // Takes out one earlier add of the same value
+    public void remove(long cents) {
+        update(cents, -1);
+    }
+
+    private void update(long cents, long delta) {
+        if (cents > 0) {
+            positive.add(index(cents), delta);
+        } else if (cents < 0) {
+            negative.add(index(-(double) cents), delta);
+        } else {
+            zeroCount += delta;
+        }
+        count += delta;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch s = new QuantileSketch(accuracy);
+        s.positive.copyFrom(positive);
+        s.negative.copyFrom(negative);
+        s.zeroCount = zeroCount;
+        s.count = count;
+        return s;
+    }
+
+    // Merges many sketches (e.g. one per month or per tenant) on the common fork/join pool
+    public static QuantileSketch mergeAll(Collection<QuantileSketch> sketches, double relativeAccuracy) {
+        return sketches.parallelStream().collect(() -> new QuantileSketch(relativeAccuracy),
+                QuantileSketch::merge, QuantileSketch::merge);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    // Midpoint (in relative terms) of bucket i, which covers (gamma^(i-1), gamma^i]
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    // --------------------- Queries ---------------------
+    public long getCount() {
+        return count;
+    }
+
+    public double getRelativeAccuracy() {
+        return accuracy;
+    }
+
+    public long estimatedBytes() {
+        return 96 + (positive.counts.length + negative.counts.length) * 8L;
+    }
+
+    // Estimated q-quantile (0 <= q <= 1) in cents; 0 for an empty sketch
+    public long quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count <= 0) {
+            return 0;
+        }
+        long rank = (long) (q * (count - 1)); // 0-based rank of the wanted value
+        // Negative values first, largest magnitude (most negative) first
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return -Math.round(value(negative.offset + i));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return Math.round(value(positive.offset + i));
+            }
+        }
+        return Math.round(value(positive.offset + positive.counts.length - 1));
+    }
+
+    public String toString() {
+        return String.format("p50 %s, p90 %s, p99 %s (%d values, +/-%.1f%%)",
+                Money.toString(quantile(0.5)), Money.toString(quantile(0.9)), Money.toString(quantile(0.99)),
+                count, accuracy * 100);
+    }
+}
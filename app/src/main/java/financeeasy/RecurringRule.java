@@ -0,0 +1,188 @@
+package financeeasy;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// --------------------- Recurring Rule ---------------------
+// An expense that repeats (rent, subscriptions, loan payments) kept as one rule
+// instead of one row per occurrence. How many times it falls in any date range is
+// worked out in closed form, so totals over a year or a decade cost the same;
+// occurrences are only produced one at a time when something iterates them.
+//
+// Occurrence k is start + k * interval days/weeks/months/years. Monthly and yearly
+// rules keep the start's day of month, moved back to the last day of shorter months
+// (a rule on the 31st falls on Feb 28/29, then on Mar 31 again). Both start and end
+// are inclusive; a null end means the rule never stops. Amounts are cents.
+public class RecurringRule {
+    public enum Cadence { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    private final String category;
+    private final long cents;
+    private final Cadence cadence;
+    private final int interval;
+    private final LocalDate start;
+    private final LocalDate end;
+
+    // Step between occurrences, in days (DAILY/WEEKLY) or months (MONTHLY/YEARLY)
+    private final int step;
+    private final int startDay;        // epoch day
+    private final int startMonth;      // year * 12 + month - 1
+    private final long lastIndex;      // index of the last occurrence, Long.MAX_VALUE if none
+
+    public RecurringRule(String category, long cents, Cadence cadence, LocalDate start, LocalDate end) {
+        this(category, cents, cadence, 1, start, end);
+    }
+
+    public RecurringRule(String category, long cents, Cadence cadence, int interval, LocalDate start, LocalDate end) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1: " + interval);
+        }
+        if (end != null && end.isBefore(start)) {
+            throw new IllegalArgumentException("End " + end + " is before start " + start);
+        }
+        this.category = category;
+        this.cents = cents;
+        this.cadence = cadence;
+        this.interval = interval;
+        this.start = start;
+        this.end = end;
+        this.step = switch (cadence) {
+            case DAILY, MONTHLY -> interval;
+            case WEEKLY -> 7 * interval;
+            case YEARLY -> 12 * interval;
+        };
+        this.startDay = (int) start.toEpochDay();
+        this.startMonth = monthIndex(start);
+        this.lastIndex = end == null ? Long.MAX_VALUE : lastIndexOnOrBefore((int) end.toEpochDay());
+    }
+
+    // --------------------- Occurrences ---------------------
+    // Date of occurrence k (k >= 0), whether or not it is past the end
+    public LocalDate occurrence(long k) {
+        return LocalDate.ofEpochDay(occurrenceDay(k));
+    }
+
+    private long occurrenceDay(long k) {
+        if (!isMonthly()) {
+            return startDay + k * step;
+        }
+        long month = startMonth + k * step;
+        LocalDate first = LocalDate.of((int) Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1, 1);
+        return first.toEpochDay() + Math.min(start.getDayOfMonth(), first.lengthOfMonth()) - 1;
+    }
+
+    private boolean isMonthly() {
+        return cadence == Cadence.MONTHLY || cadence == Cadence.YEARLY;
+    }
+
+    // Index of the first occurrence on or after day (0 if day is before the start)
+    private long firstIndexOnOrAfter(int day) {
+        if (day <= startDay) {
+            return 0;
+        }
+        long k;
+        if (isMonthly()) {
+            k = Math.floorDiv(monthIndex(LocalDate.ofEpochDay(day)) - startMonth, step);
+        } else {
+            k = Math.floorDiv(day - startDay, step);
+        }
+        // k is the last occurrence at or before day's month/period; one more step may be needed
+        return occurrenceDay(k) >= day ? k : k + 1;
+    }
+
+    // Index of the last occurrence on or before day (-1 if day is before the start)
+    private long lastIndexOnOrBefore(int day) {
+        if (day < startDay) {
+            return -1;
+        }
+        long k;
+        if (isMonthly()) {
+            k = Math.floorDiv(monthIndex(LocalDate.ofEpochDay(day)) - startMonth, step);
+        } else {
+            k = Math.floorDiv(day - startDay, step);
+        }
+        return occurrenceDay(k) <= day ? k : k - 1;
+    }
+
+    // Number of occurrences from `from` to `to`, both inclusive; O(1)
+    public long countBetween(LocalDate from, LocalDate to) {
+        return countBetween((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    long countBetween(int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            return 0;
+        }
+        long first = firstIndexOnOrAfter(fromDay);
+        long last = Math.min(lastIndexOnOrBefore(toDay), lastIndex);
+        return Math.max(0, last - first + 1);
+    }
+
+    public long centsBetween(LocalDate from, LocalDate to) {
+        return Math.multiplyExact(countBetween(from, to), cents);
+    }
+
+    long centsBetween(int fromDay, int toDay) {
+        return Math.multiplyExact(countBetween(fromDay, toDay), cents);
+    }
+
+    // Occurrence dates from `from` to `to` (inclusive), in order, computed as they are iterated
+    public Iterable<LocalDate> occurrences(LocalDate from, LocalDate to) {
+        int toDay = (int) to.toEpochDay();
+        long first = firstIndexOnOrAfter((int) from.toEpochDay());
+        long last = Math.min(lastIndexOnOrBefore(toDay), lastIndex);
+        return () -> new Iterator<LocalDate>() {
+            private long k = first;
+
+            @Override
+            public boolean hasNext() {
+                return k <= last;
+            }
+
+            @Override
+            public LocalDate next() {
+                if (k > last) {
+                    throw new NoSuchElementException();
+                }
+                return occurrence(k++);
+            }
+        };
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    // --------------------- Getters ---------------------
+    public String getCategory() {
+        return category;
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Cadence getCadence() {
+        return cadence;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    // null if the rule never ends
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    public String toString() {
+        String every = interval == 1 ? cadence.toString().toLowerCase()
+                : "every " + interval + " " + cadence.toString().toLowerCase();
+        return category + ": $" + Money.toString(cents) + " " + every + " from " + start + (end == null ? "" : " to " + end);
+    }
+}
@@ -0,0 +1,211 @@
+package financeeasy;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// --------------------- Rolling Window Stats ---------------------
+// Moving spend over the last 7, 30 and 90 days, overall and per category, kept up
+// to date as expenses come in instead of rescanning history.
+//
+// Spending is bucketed by day in a ring of RING_DAYS buckets that ends on `today`.
+// Each window keeps a running sum, so recording an expense is O(1) (plus
+// O(categories) per new day the ring moves forward, for the buckets that drop out
+// of each window). Expenses older than the longest window are outside every window
+// and are ignored. All amounts are cents.
+//
+// Only advanceTo moves `today`, so it follows the clock, not the data. An expense
+// dated after it (a scheduled payment or a typo) is held as pending by day and
+// enters the windows once advanceTo reaches its date, instead of dragging the
+// windows into the future.
+//
+// copy() is O(1): both sides share the arrays until either one changes them, which
+// first gives it arrays of its own.
+public class RollingWindowStats {
+    public static final int[] WINDOWS = {7, 30, 90};
+    private static final int RING_DAYS = 128; // power of two, at least the longest window
+    private static final int RING_MASK = RING_DAYS - 1;
+
+    private int today = Integer.MIN_VALUE;    // day the windows end on, set by advanceTo
+    private long[] totalRing = new long[RING_DAYS];
+    private long[] totalWindows = new long[WINDOWS.length];
+    private long[][] categoryRings = new long[0][];
+    private long[][] categoryWindows = new long[0][];
+    // Cents dated after today: day -> cents by category id
+    private TreeMap<Integer, long[]> pending = new TreeMap<>();
+    private boolean shared = false; // arrays and pending may be shared with a copy
+
+    // --------------------- Updates ---------------------
+    // Negative cents undo an earlier expense (remove/update)
+    public void add(int epochDay, int categoryId, long cents) {
+        unshare();
+        if (epochDay > today) {
+            long[] byCategory = pending.get(epochDay);
+            if (byCategory == null || categoryId >= byCategory.length) {
+                byCategory = byCategory == null ? new long[categoryId + 1] : Arrays.copyOf(byCategory, Math.max(categoryId + 1, byCategory.length * 2));
+                pending.put(epochDay, byCategory);
+            }
+            byCategory[categoryId] += cents;
+            return;
+        }
+        addToWindows(epochDay, categoryId, cents);
+    }
+
+    private void addToWindows(int epochDay, int categoryId, long cents) {
+        int age = today - epochDay;
+        if (age >= WINDOWS[WINDOWS.length - 1]) {
+            return;
+        }
+        ensureCategory(categoryId);
+        int slot = epochDay & RING_MASK;
+        totalRing[slot] += cents;
+        categoryRings[categoryId][slot] += cents;
+        for (int w = 0; w < WINDOWS.length; w++) {
+            if (age < WINDOWS[w]) {
+                totalWindows[w] += cents;
+                categoryWindows[categoryId][w] += cents;
+            }
+        }
+    }
+
+    // Moves the windows forward so they end on epochDay (today's date, before reading
+    // them); does nothing if they already end on or after it
+    public void advanceTo(int epochDay) {
+        if (epochDay <= today) {
+            return;
+        }
+        unshare();
+        if (today == Integer.MIN_VALUE || epochDay - today >= RING_DAYS) {
+            // Everything drops out of every window
+            Arrays.fill(totalRing, 0);
+            Arrays.fill(totalWindows, 0);
+            for (int id = 0; id < categoryRings.length; id++) {
+                Arrays.fill(categoryRings[id], 0);
+                Arrays.fill(categoryWindows[id], 0);
+            }
+            today = epochDay;
+        }
+        while (today < epochDay) {
+            today++;
+            // The day that just left each window
+            for (int w = 0; w < WINDOWS.length; w++) {
+                int leaving = (today - WINDOWS[w]) & RING_MASK;
+                totalWindows[w] -= totalRing[leaving];
+                for (int id = 0; id < categoryRings.length; id++) {
+                    categoryWindows[id][w] -= categoryRings[id][leaving];
+                }
+            }
+            // Recycle the bucket for the new day (it last held today - RING_DAYS)
+            int slot = today & RING_MASK;
+            totalRing[slot] = 0;
+            for (long[] ring : categoryRings) {
+                ring[slot] = 0;
+            }
+        }
+        // Expenses dated up to the new today now fall in the windows
+        while (!pending.isEmpty() && pending.firstKey() <= today) {
+            Map.Entry<Integer, long[]> day = pending.pollFirstEntry();
+            long[] byCategory = day.getValue();
+            for (int id = 0; id < byCategory.length; id++) {
+                if (byCategory[id] != 0) {
+                    addToWindows(day.getKey(), id, byCategory[id]);
+                }
+            }
+        }
+    }
+
+    public RollingWindowStats copy() {
+        RollingWindowStats copy = new RollingWindowStats();
+        copy.today = today;
+        copy.totalRing = totalRing;
+        copy.totalWindows = totalWindows;
+        copy.categoryRings = categoryRings;
+        copy.categoryWindows = categoryWindows;
+        copy.pending = pending;
+        copy.shared = true;
+        shared = true;
+        return copy;
+    }
+
+    // Called before any change: takes private copies of whatever may be shared
+    private void unshare() {
+        if (!shared) {
+            return;
+        }
+        totalRing = totalRing.clone();
+        totalWindows = totalWindows.clone();
+        long[][] rings = new long[categoryRings.length][];
+        long[][] windows = new long[categoryWindows.length][];
+        for (int id = 0; id < categoryRings.length; id++) {
+            rings[id] = categoryRings[id].clone();
+            windows[id] = categoryWindows[id].clone();
+        }
+        categoryRings = rings;
+        categoryWindows = windows;
+        TreeMap<Integer, long[]> days = new TreeMap<>();
+        for (Map.Entry<Integer, long[]> day : pending.entrySet()) {
+            days.put(day.getKey(), day.getValue().clone());
+        }
+        pending = days;
+        shared = false;
+    }
+
+    public void clear() {
+        shared = false; // everything below is replaced, not written to
+        today = Integer.MIN_VALUE;
+        totalRing = new long[RING_DAYS];
+        totalWindows = new long[WINDOWS.length];
+        categoryRings = new long[0][];
+        categoryWindows = new long[0][];
+        pending = new TreeMap<>();
+    }
+
+    private void ensureCategory(int categoryId) {
+        if (categoryId >= categoryRings.length) {
+            int oldLength = categoryRings.length;
+            int newLength = Math.max(categoryId + 1, oldLength * 2);
+            categoryRings = Arrays.copyOf(categoryRings, newLength);
+            categoryWindows = Arrays.copyOf(categoryWindows, newLength);
+            for (int id = oldLength; id < newLength; id++) {
+                categoryRings[id] = new long[RING_DAYS];
+                categoryWindows[id] = new long[WINDOWS.length];
+            }
+        }
+    }
+
+    // --------------------- Queries ---------------------
+    // Last day of the windows, or Integer.MIN_VALUE before advanceTo was first called
+    public int getToday() {
+        return today;
+    }
+
+    // Cents spent in the last `days` days (7, 30 or 90), up to and including today
+    public long getSpend(int days) {
+        return totalWindows[windowIndex(days)];
+    }
+
+    public long getSpend(int categoryId, int days) {
+        if (categoryId >= categoryWindows.length) {
+            return 0;
+        }
+        return categoryWindows[categoryId][windowIndex(days)];
+    }
+
+    // Average cents spent per day over the window
+    public double getDailyVelocity(int days) {
+        return getSpend(days) / (double) days;
+    }
+
+    public double getDailyVelocity(int categoryId, int days) {
+        return getSpend(categoryId, days) / (double) days;
+    }
+
+    private static int windowIndex(int days) {
+        for (int w = 0; w < WINDOWS.length; w++) {
+            if (WINDOWS[w] == days) {
+                return w;
+            }
+        }
+        throw new IllegalArgumentException("No " + days + "-day window; use one of " + Arrays.toString(WINDOWS));
+    }
+}
@@ -0,0 +1,180 @@
+package financeeasy;
+
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// --------------------- Scenario ---------------------
+// A named what-if on top of a budget, e.g. "cut Food by 20% and add a $300 car loan".
+// The scenario works on a fork of the budget (BudgetManager.fork), so creating one
+// costs next to nothing however large the ledger is, and nothing done to it touches
+// the original or gets saved. On top of the forked expenses it carries:
+// - category factors (0.8 = spend 20% less), applied to the totals at summary time
+//   rather than rewriting every row
+// - monthly charges, e.g. a loan payment worked out by the calculators
+// Summaries only read the fork, so many scenarios can be summarized in parallel.
+public class Scenario {
+    private final String name;
+    private final Main.BudgetManager budget;
+    private final HashMap<String, Double> categoryFactors = new HashMap<>();
+    private final ArrayList<Charge> monthlyCharges = new ArrayList<>();
+
+    public Scenario(String name, Main.BudgetManager base) {
+        this.name = name;
+        this.budget = base.fork();
+    }
+
+    // A scenario built on this one: same expenses, factors and charges, changed independently
+    public Scenario fork(String name) {
+        Scenario copy = new Scenario(name, budget);
+        copy.categoryFactors.putAll(categoryFactors);
+        copy.monthlyCharges.addAll(monthlyCharges);
+        return copy;
+    }
+
+    // --------------------- Monthly Charges ---------------------
+    public static class Charge {
+        private final String label;
+        private final String category;
+        private final long cents;
+
+        Charge(String label, String category, long cents) {
+            this.label = label;
+            this.category = category;
+            this.cents = cents;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public long getCents() {
+            return cents;
+        }
+    }
+
+    // --------------------- Overrides ---------------------
+    // Multiplies a category's spending in every summary (0.8 = 20% less, 0 = cut it out)
+    public void scaleCategory(String category, double factor) {
+        if (!(factor >= 0) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("Factor must be 0 or more: " + factor);
+        }
+        categoryFactors.put(category, factor);
+    }
+
+    public void setIncome(double monthlyIncome) {
+        budget.setIncome(monthlyIncome);
+    }
+
+    // One-off expense, added to this scenario's fork only
+    public void addExpense(Expense expense) {
+        budget.addExpense(expense);
+    }
+
+    public void addMonthlyCharge(String label, String category, long cents) {
+        monthlyCharges.add(new Charge(label, category, cents));
+    }
+
+    // Adds the monthly payment of a new loan (rounded up to the cent, like lenders do)
+    // under the "Loans" category and returns it in cents
+    public long addLoan(String label, double amount, double annualRate, int years) {
+        long payment = Calculators.monthlyLoanPaymentCents(Money.fromDollars(amount), annualRate, years, RoundingMode.HALF_UP);
+        addMonthlyCharge(label, "Loans", payment);
+        return payment;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Main.BudgetManager getBudget() {
+        return budget;
+    }
+
+    public List<Charge> getMonthlyCharges() {
+        return Collections.unmodifiableList(monthlyCharges);
+    }
+
+    // --------------------- Summaries ---------------------
+    public static class Summary {
+        private final String name;
+        private final YearMonth month;
+        private final long incomeCents;
+        private final long spentCents;
+        private final TreeMap<String, Long> byCategory;
+
+        Summary(String name, YearMonth month, long incomeCents, long spentCents, TreeMap<String, Long> byCategory) {
+            this.name = name;
+            this.month = month;
+            this.incomeCents = incomeCents;
+            this.spentCents = spentCents;
+            this.byCategory = byCategory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public long getIncomeCents() {
+            return incomeCents;
+        }
+
+        public long getSpentCents() {
+            return spentCents;
+        }
+
+        public long getLeftoverCents() {
+            return incomeCents - spentCents;
+        }
+
+        public double getLeftover() {
+            return Money.toDollars(getLeftoverCents());
+        }
+
+        // Category name -> cents, including monthly charges, in name order
+        public Map<String, Long> getByCategory() {
+            return Collections.unmodifiableMap(byCategory);
+        }
+
+        public String toString() {
+            return String.format("%s (%s): income $%s, spent $%s, leftover $%s", name, month,
+                    Money.toString(incomeCents), Money.toString(spentCents), Money.toString(getLeftoverCents()));
+        }
+    }
+
+    // O(categories * log days + charges), from the fork's date index
+    public Summary summarize(YearMonth month) {
+        TreeMap<String, Long> byCategory = new TreeMap<>();
+        long spent = 0;
+        for (Map.Entry<String, Long> entry : budget.getCentsByCategory(month).entrySet()) {
+            Double factor = categoryFactors.get(entry.getKey());
+            long cents = factor == null ? entry.getValue() : Money.round(entry.getValue() * factor, Money.DEFAULT_ROUNDING);
+            byCategory.merge(entry.getKey(), cents, Long::sum);
+            spent += cents;
+        }
+        for (Charge charge : monthlyCharges) {
+            byCategory.merge(charge.category, charge.cents, Long::sum);
+            spent += charge.cents;
+        }
+        return new Summary(name, month, budget.getIncomeCents(), spent, byCategory);
+    }
+
+    // Summaries of many scenarios for the same month, computed in parallel, in list order
+    public static List<Summary> summarizeAll(List<Scenario> scenarios, YearMonth month) {
+        return scenarios.parallelStream().map(s -> s.summarize(month)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,181 @@
+package financeeasy;
+
+// --------------------- Solvers ---------------------
+// The calculators run the loan and savings formulas forward; these run them
+// backwards: what to save each month to hit a goal, what rate a payment implies,
+// how big a loan a monthly leftover can carry, and how long a payoff takes.
+// Everything compounds monthly, like Calculators.calculateMonthlyLoanPayment.
+//
+// Contribution, affordable loan and payoff months have closed forms. The implied
+// rate does not, so it is found with Newton's method, started where it is known to
+// converge without overshooting and capped at MAX_ITERATIONS so no input can take
+// longer than the rest. Batch versions follow the Calculators conventions: caller-
+// provided output arrays, split across the common pool from PARALLEL_THRESHOLD up.
+public class Solvers {
+    static final int MAX_ITERATIONS = 64;
+    private static final double TOLERANCE = 1e-12;
+
+    // ---------------- Savings Goals ----------------
+    // Monthly deposit (at the end of each month) that grows `current` to `goal` in
+    // `months` at the given annual rate; 0 if current savings get there on their own
+    public static double requiredMonthlyContribution(double goal, double current, double annualRate, int months) {
+        if (months <= 0) {
+            throw new IllegalArgumentException("Months must be positive: " + months);
+        }
+        double r = annualRate / 12;
+        double contribution;
+        if (r == 0) {
+            contribution = (goal - current) / months;
+        } else {
+            // goal = current * g + c * (g - 1) / r
+            double growth = Math.pow(1 + r, months);
+            contribution = (goal - current * growth) * r / (growth - 1);
+        }
+        return Math.max(0, contribution);
+    }
+
+    // Months of `contribution` needed to grow `current` to `goal`; -1 if it never gets there
+    public static int monthsToGoal(double goal, double current, double annualRate, double contribution) {
+        if (current >= goal) {
+            return 0;
+        }
+        double r = annualRate / 12;
+        double months;
+        if (r == 0) {
+            if (contribution <= 0) {
+                return -1;
+            }
+            months = (goal - current) / contribution;
+        } else {
+            // (goal * r + c) / (current * r + c) = (1 + r)^n
+            double ratio = (goal * r + contribution) / (current * r + contribution);
+            if (!(ratio > 0) || current * r + contribution <= 0) {
+                return -1;
+            }
+            months = Math.log(ratio) / Math.log1p(r);
+        }
+        return ceilMonths(months);
+    }
+
+    // ---------------- Loans ----------------
+    // Largest loan a monthly payment (e.g. the budget's leftover) can pay off in `years`
+    public static double maxAffordableLoan(double monthlyPayment, double annualRate, int years) {
+        if (years <= 0) {
+            throw new IllegalArgumentException("Years must be positive: " + years);
+        }
+        if (monthlyPayment <= 0) {
+            return 0;
+        }
+        double factor = Calculators.paymentFactor(annualRate, years);
+        return factor == 0 ? monthlyPayment * years * 12 : monthlyPayment / factor;
+    }
+
+    // Payments needed to clear a loan (the last one may be smaller); -1 if the payment
+    // does not even cover the interest
+    public static int monthsToPayoff(double loanAmount, double annualRate, double monthlyPayment) {
+        if (loanAmount <= 0) {
+            return 0;
+        }
+        double r = annualRate / 12;
+        double interest = loanAmount * r;
+        if (monthlyPayment <= interest || monthlyPayment <= 0) {
+            return -1;
+        }
+        if (r == 0) {
+            return ceilMonths(loanAmount / monthlyPayment);
+        }
+        // n = -ln(1 - P * r / M) / ln(1 + r)
+        return ceilMonths(-Math.log1p(-interest / monthlyPayment) / Math.log1p(r));
+    }
+
+    // Annual rate at which `monthlyPayment` for `months` pays off `loanAmount`. NaN if the
+    // payments add up to less than the loan (that would need a negative rate).
+    public static double impliedAnnualRate(double loanAmount, double monthlyPayment, int months) {
+        if (months <= 0) {
+            throw new IllegalArgumentException("Months must be positive: " + months);
+        }
+        double total = monthlyPayment * months;
+        if (!(loanAmount > 0) || !(total >= loanAmount)) {
+            return Double.NaN;
+        }
+        if (total == loanAmount) {
+            return 0;
+        }
+        if (months == 1) {
+            return 12 * (monthlyPayment / loanAmount - 1);
+        }
+        // f(r) = P * r - M * (1 - (1 + r)^-n) is convex with f(0) = 0 and f'(0) < 0, so it
+        // has one positive root. The first guess is the root of its second-order Taylor
+        // expansion, just below the real one; where f is rising there, one Newton step lands
+        // to the right of the root and every later step falls towards it without passing it.
+        // If the guess is too far left (f still falling) start from r = M / P instead, which
+        // is always to the right.
+        // 1 - (1 + r)^-n goes through expm1/log1p: at low rates the plain form cancels
+        // down to noise and Newton would never settle.
+        double r = 2 * (total - loanAmount) / (total * (months + 1.0));
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double paidOff = -Math.expm1(-months * Math.log1p(r));
+            double f = loanAmount * r - monthlyPayment * paidOff;
+            double slope = loanAmount - monthlyPayment * months * (1 - paidOff) / (1 + r);
+            if (!(slope > 0)) {
+                r = monthlyPayment / loanAmount;
+                continue;
+            }
+            if (i > 0 && f <= 0) {
+                break; // past the first step every iterate is right of the root, so this is it
+            }
+            double step = f / slope;
+            r -= step;
+            if (Math.abs(step) <= TOLERANCE * r) {
+                break;
+            }
+        }
+        return 12 * r;
+    }
+
+    // A millionth of a month (a few seconds) past a whole month still rounds down, so that
+    // floating point noise on an exact result (e.g. 312.000000005) is not charged a 313th
+    // month; the logs lose most of their precision at very low rates
+    private static int ceilMonths(double months) {
+        if (months >= Integer.MAX_VALUE) {
+            return -1;
+        }
+        return (int) Math.ceil(months - 1e-6);
+    }
+
+    // ---------------- Batch Versions ----------------
+    // Same results as calling the scalar methods in a loop; element i of every input
+    // array describes goal or loan i. Work per element is bounded (the Newton loop is
+    // capped), so big batches split evenly across cores.
+    public static void requiredMonthlyContribution(double[] goal, double[] current, double[] annualRate, int[] months, double[] out) {
+        Calculators.forBlocks(out.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = requiredMonthlyContribution(goal[i], current[i], annualRate[i], months[i]);
+            }
+        });
+    }
+
+    public static void maxAffordableLoan(double[] monthlyPayment, double[] annualRate, int[] years, double[] out) {
+        Calculators.forBlocks(out.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = maxAffordableLoan(monthlyPayment[i], annualRate[i], years[i]);
+            }
+        });
+    }
+
+    public static void monthsToPayoff(double[] loanAmount, double[] annualRate, double[] monthlyPayment, int[] out) {
+        Calculators.forBlocks(out.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = monthsToPayoff(loanAmount[i], annualRate[i], monthlyPayment[i]);
+            }
+        });
+    }
+
+    public static void impliedAnnualRate(double[] loanAmount, double[] monthlyPayment, int[] months, double[] out) {
+        Calculators.forBlocks(out.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = impliedAnnualRate(loanAmount[i], monthlyPayment[i], months[i]);
+            }
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package financeeasy;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.border.TitledBorder;
+import javax.swing.text.JTextComponent;
+import java.awt.*;
+import java.util.ArrayList;
+
+// --------------------- Style Registry ---------------------
+// Components register once, by role, when they are built; applying a theme then
+// restyles exactly those components instead of walking the component tree. Tabs
+// built after a theme was applied pick it up as they register.
+public class StyleRegistry {
+    private final ArrayList<Component> surfaces = new ArrayList<>();
+    private final ArrayList<JTextComponent> inputs = new ArrayList<>();
+    private final ArrayList<Component> texts = new ArrayList<>();
+    private final ArrayList<JComponent> titled = new ArrayList<>();
+    private final ArrayList<JScrollPane> scrollPanes = new ArrayList<>();
+    private final ArrayList<Accent> accents = new ArrayList<>();
+
+    // Null until a theme is applied; until then components keep the look and feel defaults
+    private Color background;
+    private Color foreground;
+    private Color accentColor;
+
+    // A button with its own hover colors; one mouse listener for its lifetime
+    private static final class Accent extends java.awt.event.MouseAdapter {
+        final AbstractButton button;
+        Color normal;
+        Color hover;
+
+        Accent(AbstractButton button, Color normal, Color hover) {
+            this.button = button;
+            this.normal = normal;
+            this.hover = hover;
+        }
+
+        public void mouseEntered(java.awt.event.MouseEvent evt) {
+            if (hover != null) {
+                button.setBackground(hover);
+            }
+        }
+
+        public void mouseExited(java.awt.event.MouseEvent evt) {
+            if (normal != null) {
+                button.setBackground(normal);
+            }
+        }
+
+        void style() {
+            button.setBackground(normal);
+            button.setForeground(Color.WHITE);
+            button.setFocusPainted(false);
+        }
+    }
+
+    // --------------------- Registration ---------------------
+    // Panels, labels and other widgets that take the theme's background and text colors
+    public void surface(Component... components) {
+        for (Component c : components) {
+            surfaces.add(c);
+            if (background != null) {
+                styleSurface(c);
+            }
+        }
+    }
+
+    public void input(JTextComponent... fields) {
+        for (JTextComponent field : fields) {
+            inputs.add(field);
+            if (background != null) {
+                styleInput(field);
+            }
+        }
+    }
+
+    // Text color only (labels on a panel that keeps its own background)
+    public void text(Component... components) {
+        for (Component c : components) {
+            texts.add(c);
+            if (foreground != null) {
+                c.setForeground(foreground);
+            }
+        }
+    }
+
+    // Components with a TitledBorder whose title follows the text color
+    public void titled(JComponent component) {
+        titled.add(component);
+        if (foreground != null) {
+            styleTitle(component);
+        }
+    }
+
+    public void scrollPane(JScrollPane scroll) {
+        scrollPanes.add(scroll);
+        if (background != null) {
+            styleScrollPane(scroll);
+        }
+    }
+
+    // Buttons in the accent color; null colors keep the default look until a theme is applied
+    public void accent(AbstractButton button, Color normal, Color hover) {
+        Accent accent = new Accent(button, normal, hover);
+        if (accentColor != null) {
+            accent.normal = accentColor;
+            accent.hover = accentColor.darker();
+        }
+        if (accent.normal != null) {
+            accent.style();
+        }
+        button.addMouseListener(accent);
+        accents.add(accent);
+    }
+
+    // --------------------- Themes ---------------------
+    public void apply(Color background, Color foreground, Color accent) {
+        this.background = background;
+        this.foreground = foreground;
+        this.accentColor = accent;
+        for (Component c : surfaces) {
+            styleSurface(c);
+        }
+        for (JTextComponent field : inputs) {
+            styleInput(field);
+        }
+        for (Component c : texts) {
+            c.setForeground(foreground);
+        }
+        for (JComponent c : titled) {
+            styleTitle(c);
+        }
+        for (JScrollPane scroll : scrollPanes) {
+            styleScrollPane(scroll);
+        }
+        for (Accent a : accents) {
+            a.normal = accent;
+            a.hover = accent.darker();
+            a.style();
+        }
+    }
+
+    private void styleSurface(Component c) {
+        c.setBackground(background);
+        c.setForeground(foreground);
+    }
+
+    private void styleInput(JTextComponent field) {
+        field.setBackground(background);
+        field.setForeground(foreground);
+        field.setCaretColor(foreground);
+    }
+
+    private void styleTitle(JComponent c) {
+        Border border = c.getBorder();
+        if (border instanceof TitledBorder title) {
+            title.setTitleColor(foreground);
+            c.repaint();
+        }
+    }
+
+    private void styleScrollPane(JScrollPane scroll) {
+        styleSurface(scroll);
+        scroll.getViewport().setBackground(background);
+    }
+}
@@ -0,0 +1,166 @@
+package financeeasy;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// --------------------- Tax Brackets ---------------------
+// Progressive tax table: income from thresholds[i] up to the next threshold is taxed
+// at rates[i]. The tax owed at every threshold is precomputed, so the tax on any
+// income is one binary search plus one multiply-add:
+//
+//   tax(income) = cumulative[i] + (income - thresholds[i]) * rates[i]
+//
+// where thresholds[i] is the highest threshold <= income. flat(rate) is the
+// one-bracket table, and gives exactly Calculators.estimateTax / estimateTaxCents.
+// Thresholds are in cents; the double methods take and return dollars.
+public class TaxBrackets {
+    private final long[] thresholds;       // cents, ascending, thresholds[0] = 0
+    private final double[] rates;
+    private final double[] cumulativeCents; // tax owed at each threshold, unrounded
+
+    public TaxBrackets(long[] thresholdCents, double[] rates) {
+        if (thresholdCents.length == 0 || thresholdCents.length != rates.length) {
+            throw new IllegalArgumentException("Need one rate per threshold");
+        }
+        if (thresholdCents[0] != 0) {
+            throw new IllegalArgumentException("The first bracket must start at 0");
+        }
+        this.thresholds = thresholdCents.clone();
+        this.rates = rates.clone();
+        this.cumulativeCents = new double[rates.length];
+        for (int i = 1; i < rates.length; i++) {
+            if (thresholds[i] <= thresholds[i - 1]) {
+                throw new IllegalArgumentException("Thresholds must be ascending");
+            }
+            cumulativeCents[i] = cumulativeCents[i - 1] + (thresholds[i] - thresholds[i - 1]) * rates[i - 1];
+        }
+    }
+
+    public static TaxBrackets flat(double rate) {
+        return new TaxBrackets(new long[]{0}, new double[]{rate});
+    }
+
+    // --------------------- Lookups ---------------------
+    // Index of the bracket income falls in; incomes below 0 use the first bracket
+    private int bracket(long cents) {
+        int i = Arrays.binarySearch(thresholds, cents);
+        return i >= 0 ? i : Math.max(0, -i - 2);
+    }
+
+    public long taxCents(long incomeCents, RoundingMode mode) {
+        int i = bracket(incomeCents);
+        return Money.round(cumulativeCents[i] + (incomeCents - thresholds[i]) * rates[i], mode);
+    }
+
+    public double tax(double income) {
+        long cents = Money.fromDollars(income);
+        int i = bracket(cents);
+        if (i == 0) {
+            return income * rates[0];
+        }
+        return cumulativeCents[i] / 100 + (income - thresholds[i] / 100.0) * rates[i];
+    }
+
+    public double marginalRate(long incomeCents) {
+        return rates[bracket(incomeCents)];
+    }
+
+    public double effectiveRate(long incomeCents) {
+        return incomeCents <= 0 ? 0 : taxCents(incomeCents, RoundingMode.HALF_EVEN) / (double) incomeCents;
+    }
+
+    // Batch version for what-if runs: fills out[i] with the tax on incomeCents[i],
+    // split into blocks across the common fork/join pool for large batches
+    public void taxCents(long[] incomeCents, RoundingMode mode, long[] out) {
+        Calculators.forBlocks(out.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = taxCents(incomeCents[i], mode);
+            }
+        });
+    }
+
+    public int getBracketCount() {
+        return rates.length;
+    }
+
+    // --------------------- Filing Profiles ---------------------
+    // A bracket table with its standard deduction. Taxable income is gross income
+    // minus the larger of the standard and itemized deductions, never below zero.
+    public static class Profile {
+        private final String name;
+        private final long standardDeductionCents;
+        private final TaxBrackets brackets;
+
+        public Profile(String name, long standardDeductionCents, TaxBrackets brackets) {
+            this.name = name;
+            this.standardDeductionCents = standardDeductionCents;
+            this.brackets = brackets;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStandardDeductionCents() {
+            return standardDeductionCents;
+        }
+
+        public TaxBrackets getBrackets() {
+            return brackets;
+        }
+
+        public long taxableCents(long grossCents, long itemizedDeductionCents) {
+            return Math.max(0, grossCents - Math.max(standardDeductionCents, itemizedDeductionCents));
+        }
+
+        public long taxCents(long grossCents, long itemizedDeductionCents, RoundingMode mode) {
+            return brackets.taxCents(taxableCents(grossCents, itemizedDeductionCents), mode);
+        }
+
+        public long taxCents(long grossCents, RoundingMode mode) {
+            return taxCents(grossCents, 0, mode);
+        }
+
+        // Batch version; itemizedDeductionCents may be null for the standard deduction only
+        public void taxCents(long[] grossCents, long[] itemizedDeductionCents, RoundingMode mode, long[] out) {
+            Calculators.forBlocks(out.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    long itemized = itemizedDeductionCents == null ? 0 : itemizedDeductionCents[i];
+                    out[i] = taxCents(grossCents[i], itemized, mode);
+                }
+            });
+        }
+    }
+
+    // US federal income tax, 2024 tax year
+    public static final Profile SINGLE = new Profile("single", 14_600_00,
+            new TaxBrackets(new long[]{0, 11_600_00, 47_150_00, 100_525_00, 191_950_00, 243_725_00, 609_350_00},
+                    new double[]{0.10, 0.12, 0.22, 0.24, 0.32, 0.35, 0.37}));
+
+    public static final Profile MARRIED_JOINT = new Profile("married", 29_200_00,
+            new TaxBrackets(new long[]{0, 23_200_00, 94_300_00, 201_050_00, 383_900_00, 487_450_00, 731_200_00},
+                    new double[]{0.10, 0.12, 0.22, 0.24, 0.32, 0.35, 0.37}));
+
+    public static final Profile HEAD_OF_HOUSEHOLD = new Profile("head", 21_900_00,
+            new TaxBrackets(new long[]{0, 16_550_00, 63_100_00, 100_500_00, 191_950_00, 243_700_00, 609_350_00},
+                    new double[]{0.10, 0.12, 0.22, 0.24, 0.32, 0.35, 0.37}));
+
+    private static final Map<String, Profile> PROFILES = new LinkedHashMap<>();
+
+    static {
+        for (Profile profile : new Profile[]{SINGLE, MARRIED_JOINT, HEAD_OF_HOUSEHOLD}) {
+            PROFILES.put(profile.getName(), profile);
+        }
+    }
+
+    // Built-in profile by name (single, married, head), or null
+    public static Profile profile(String name) {
+        return PROFILES.get(name.trim().toLowerCase());
+    }
+
+    public static String profileNames() {
+        return String.join(", ", PROFILES.keySet());
+    }
+}
@@ -0,0 +1,389 @@
+package financeeasy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// --------------------- Tenant Registry ---------------------
+// Holds the budget state of many users in one process. Each tenant lives in its own
+// sub-directory (ExpenseJournal snapshot + journal, and goal.properties).
+//
+// Tenants that are in use stay in memory, least recently used first out, while the
+// estimated heap of all resident tenants fits the memory budget. Evicting a tenant
+// closes its journal, which writes a fresh snapshot, so paging it back in is one
+// memory-mapped load. One shared flusher commits every resident journal instead of
+// a thread per tenant.
+//
+// All access goes through withTenant(), which pins the tenant for the duration of
+// the call (a pinned tenant is never evicted) and runs calls for the same tenant
+// one at a time.
+//
+// The registry's own monitor only guards the map and the counters. Loading a tenant
+// from disk and closing an evicted one both run under that tenant's lock alone, so a
+// cold load only holds up callers of the same tenant. A tenant paged back in while its
+// evicted copy is still being saved waits for that save before reading the files.
+//
+// Every tenant converts with the registry's exchange rates, given to it before its
+// ledger is read, so rows in other currencies load like any other.
+public class TenantRegistry implements Closeable {
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+    private static final String GOAL_FILE = "goal.properties";
+
+    private final Path directory;
+    private final long memoryBudget;
+    private final FxTable fxRates; // null if only the base currency is used
+
+    // Access-ordered: iteration starts at the least recently used tenant
+    private final LinkedHashMap<String, Tenant> resident = new LinkedHashMap<>(16, 0.75f, true);
+    // Evicted tenants whose journals are still being closed, by id
+    private final HashMap<String, Tenant> closing = new HashMap<>();
+    private long residentBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long loadNanos = 0;
+
+    private final ScheduledExecutorService flusher;
+
+    public TenantRegistry(Path directory, long memoryBudgetBytes) {
+        this(directory, memoryBudgetBytes, 200);
+    }
+
+    public TenantRegistry(Path directory, long memoryBudgetBytes, long flushIntervalMillis) {
+        this(directory, memoryBudgetBytes, flushIntervalMillis, null);
+    }
+
+    public TenantRegistry(Path directory, long memoryBudgetBytes, long flushIntervalMillis, FxTable fxRates) {
+        this.directory = directory;
+        this.memoryBudget = memoryBudgetBytes;
+        this.fxRates = fxRates;
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tenant-journal-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::commitAll, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // --------------------- One Tenant ---------------------
+    public static class Tenant {
+        private final String id;
+        private final Path directory;
+        private final Main.BudgetManager budget = new Main.BudgetManager(0);
+        private final ExpenseJournal journal;
+        private Main.GoalTracker goal;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private int pins = 0;        // guarded by the registry
+        private long bytes = 0;      // last estimate, guarded by the registry
+
+        // Guarded by lock
+        private boolean loaded = false;
+        private Exception loadFailure;
+        private Tenant predecessor;  // evicted copy still being saved; set by the registry
+
+        // Completed once an evicted tenant's journal is closed and its files are final
+        private final CompletableFuture<Void> closed = new CompletableFuture<>();
+
+        Tenant(String id, Path directory) {
+            this.id = id;
+            this.directory = directory;
+            this.journal = new ExpenseJournal(directory);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Main.BudgetManager getBudget() {
+            return budget;
+        }
+
+        public Main.GoalTracker getGoal() {
+            return goal;
+        }
+
+        // Saved straight away; goals are small and rarely change
+        public void setGoal(Main.GoalTracker goal) {
+            this.goal = goal;
+            Properties properties = new Properties();
+            properties.setProperty("amount", Long.toString(Money.fromDollars(goal.getGoalAmount())));
+            properties.setProperty("date", goal.getGoalDate().toString());
+            try (OutputStream out = Files.newOutputStream(directory.resolve(GOAL_FILE))) {
+                properties.store(out, "Savings goal (amount in cents)");
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not save goal for tenant " + id, ex);
+            }
+        }
+
+        void load(FxTable fxRates) throws IOException {
+            if (fxRates != null) {
+                budget.setFxRates(fxRates);
+            }
+            budget.attachJournal(journal, 0);
+            Path goalFile = directory.resolve(GOAL_FILE);
+            if (Files.exists(goalFile)) {
+                Properties properties = new Properties();
+                try (InputStream in = Files.newInputStream(goalFile)) {
+                    properties.load(in);
+                }
+                goal = new Main.GoalTracker(Money.toDollars(Long.parseLong(properties.getProperty("amount"))),
+                        LocalDate.parse(properties.getProperty("date")));
+            }
+        }
+    }
+
+    // --------------------- Access ---------------------
+    public <R> R withTenant(String tenantId, Function<Tenant, R> action) {
+        Tenant tenant = pin(tenantId);
+        try {
+            tenant.lock.lock();
+            try {
+                ensureLoaded(tenant);
+                return action.apply(tenant);
+            } finally {
+                tenant.lock.unlock();
+            }
+        } finally {
+            unpin(tenant);
+        }
+    }
+
+    // Map bookkeeping only; a new tenant is put in the map unloaded and loaded by ensureLoaded
+    private synchronized Tenant pin(String tenantId) {
+        if (!VALID_ID.matcher(tenantId).matches() || tenantId.equals(".") || tenantId.equals("..")) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenantId);
+        }
+        Tenant tenant = resident.get(tenantId);
+        if (tenant != null) {
+            hits++;
+        } else {
+            misses++;
+            tenant = new Tenant(tenantId, directory.resolve(tenantId));
+            tenant.predecessor = closing.get(tenantId);
+            resident.put(tenantId, tenant);
+        }
+        tenant.pins++;
+        return tenant;
+    }
+
+    // Called holding tenant.lock; the first caller loads, later ones see the result
+    private void ensureLoaded(Tenant tenant) {
+        if (!tenant.loaded && tenant.loadFailure == null) {
+            long start = System.nanoTime();
+            if (tenant.predecessor != null) {
+                tenant.predecessor.closed.join();
+                tenant.predecessor = null;
+            }
+            try {
+                tenant.load(fxRates);
+                tenant.loaded = true;
+            } catch (IOException | RuntimeException ex) {
+                // Whatever was half loaded is dropped with the Tenant
+                tenant.loadFailure = ex;
+                synchronized (this) {
+                    resident.remove(tenant.id, tenant); // the next call starts over with a new Tenant
+                }
+            }
+            synchronized (this) {
+                loadNanos += System.nanoTime() - start;
+            }
+        }
+        if (tenant.loadFailure instanceof IOException failure) {
+            throw new UncheckedIOException("Could not load tenant " + tenant.id, failure);
+        } else if (tenant.loadFailure != null) {
+            throw new IllegalStateException("Could not load tenant " + tenant.id, tenant.loadFailure);
+        }
+    }
+
+    private void unpin(Tenant tenant) {
+        List<Tenant> evicted;
+        synchronized (this) {
+            tenant.pins--;
+            if (tenant.pins == 0 && tenant.loaded && tenant.lock.tryLock()) {
+                try {
+                    // Re-measure now that the call is done; it may have added expenses
+                    long bytes = tenant.budget.estimatedBytes();
+                    residentBytes += bytes - tenant.bytes;
+                    tenant.bytes = bytes;
+                } finally {
+                    tenant.lock.unlock();
+                }
+            }
+            evicted = takeOverBudget();
+        }
+        for (Tenant victim : evicted) {
+            closeEvicted(victim);
+        }
+    }
+
+    // Takes unpinned tenants out of the map, least recently used first, until the rest fit
+    private List<Tenant> takeOverBudget() {
+        List<Tenant> evicted = new ArrayList<>();
+        Iterator<Tenant> eldestFirst = resident.values().iterator();
+        while (residentBytes > memoryBudget && eldestFirst.hasNext()) {
+            Tenant tenant = eldestFirst.next();
+            if (tenant.pins > 0) {
+                continue;
+            }
+            eldestFirst.remove();
+            residentBytes -= tenant.bytes;
+            evictions++;
+            closing.put(tenant.id, tenant);
+            evicted.add(tenant);
+        }
+        return evicted;
+    }
+
+    // Writes the evicted tenant's snapshot outside the registry monitor
+    private void closeEvicted(Tenant tenant) {
+        tenant.lock.lock();
+        try {
+            tenant.journal.close();
+        } catch (IOException ex) {
+            System.err.println("Could not save tenant " + tenant.id + ": " + ex.getMessage());
+        } finally {
+            tenant.lock.unlock();
+            synchronized (this) {
+                closing.remove(tenant.id, tenant);
+            }
+            tenant.closed.complete(null);
+        }
+    }
+
+    // Skips tenants busy in withTenant; their pending records go in the next round
+    private void commitAll() {
+        ArrayList<Tenant> tenants;
+        synchronized (this) {
+            tenants = new ArrayList<>(resident.values());
+        }
+        for (Tenant tenant : tenants) {
+            if (!tenant.lock.tryLock()) {
+                continue;
+            }
+            try {
+                tenant.journal.commit();
+            } catch (UncheckedIOException ex) {
+                System.err.println(ex.getMessage() + ": " + ex.getCause().getMessage());
+            } finally {
+                tenant.lock.unlock();
+            }
+        }
+    }
+
+    // --------------------- Metrics ---------------------
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int residentTenants;
+        private final long residentBytes;
+        private final long memoryBudget;
+        private final long loadNanos;
+
+        Stats(long hits, long misses, long evictions, int residentTenants, long residentBytes, long memoryBudget, long loadNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.residentTenants = residentTenants;
+            this.residentBytes = residentBytes;
+            this.memoryBudget = memoryBudget;
+            this.loadNanos = loadNanos;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getResidentTenants() {
+            return residentTenants;
+        }
+
+        public long getResidentBytes() {
+            return residentBytes;
+        }
+
+        public long getMemoryBudget() {
+            return memoryBudget;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        // Average time to page a tenant in from disk
+        public double getAverageLoadMillis() {
+            return misses == 0 ? 0 : loadNanos / 1e6 / misses;
+        }
+
+        public String toString() {
+            return String.format("hits %d, misses %d (%.1f%% hit rate, %.2f ms per load), evictions %d, %d tenant(s) resident using ~%d of %d KB",
+                    hits, misses, getHitRate() * 100, getAverageLoadMillis(), evictions, residentTenants,
+                    residentBytes / 1024, memoryBudget / 1024);
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, resident.size(), residentBytes, memoryBudget, loadNanos);
+    }
+
+    // --------------------- Shutdown ---------------------
+    // Saves every resident tenant and waits for evictions still saving; the registry
+    // cannot be used afterwards
+    @Override
+    public void close() throws IOException {
+        flusher.shutdownNow();
+        List<Tenant> tenants;
+        List<Tenant> evicted;
+        synchronized (this) {
+            tenants = new ArrayList<>(resident.values());
+            evicted = new ArrayList<>(closing.values());
+            resident.clear();
+            residentBytes = 0;
+        }
+        IOException failure = null;
+        for (Tenant tenant : tenants) {
+            tenant.lock.lock();
+            try {
+                tenant.journal.close();
+            } catch (IOException ex) {
+                failure = ex;
+            } finally {
+                tenant.lock.unlock();
+            }
+        }
+        for (Tenant tenant : evicted) {
+            tenant.closed.join();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package financeeasy;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// --------------------- Benchmark Runner ---------------------
+// Entry point of benchmarks.jar. Accepts the usual JMH command line
+// (e.g. "CalculatorsBenchmark -f 1 -wi 3 -i 5") and always adds the GC profiler,
+// so every run also reports allocation rate (gc.alloc.rate.norm = bytes per op).
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,183 @@
+package financeeasy;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// --------------------- Budget Manager Benchmark ---------------------
+// Summary queries against ledgers of 1K to 10M expenses. The running-total
+// queries should stay flat as the ledger grows; the full recomputes are here
+// as the baseline they replaced.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BudgetManagerBenchmark {
+    static final String[] CATEGORIES = {"Food", "Rent", "Travel", "Fun", "Utilities", "Health", "Gifts", "Transport"};
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int expenses;
+
+    private Main.BudgetManager budget;
+    private YearMonth month;
+    private List<Scenario> scenarios;
+    private Main.BudgetManager recurring;
+    private Main.BudgetManager multiCurrency;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        budget = filledBudget(expenses, 42);
+        month = YearMonth.of(2023, 6);
+        scenarios = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            Scenario scenario = new Scenario("Food -" + i + "%", budget);
+            scenario.scaleCategory("Food", 1 - i / 100.0);
+            scenario.addLoan("Car", 15_000, 0.06, 5);
+            scenarios.add(scenario);
+        }
+        // A daily, a weekly and a monthly rule per category
+        recurring = budget.fork();
+        LocalDate ruleStart = LocalDate.of(2020, 1, 15);
+        for (String category : CATEGORIES) {
+            recurring.addRecurring(new RecurringRule(category, 350, RecurringRule.Cadence.DAILY, ruleStart, null));
+            recurring.addRecurring(new RecurringRule(category, 2_500, RecurringRule.Cadence.WEEKLY, ruleStart, null));
+            recurring.addRecurring(new RecurringRule(category, 99_00, RecurringRule.Cadence.MONTHLY, ruleStart, null));
+        }
+        // Daily EUR and GBP rates over the ledger's dates, and a tenth of the expenses in each
+        Random random = new Random(7);
+        FxTable.Builder rates = new FxTable.Builder(Money.BASE_CURRENCY);
+        for (int day = 0; day < 1_500; day++) {
+            LocalDate date = LocalDate.of(2020, 1, 1).plusDays(day);
+            rates.quote("EUR", date, 1.05 + random.nextDouble() * 0.1);
+            rates.quote("GBP", date, 1.20 + random.nextDouble() * 0.1);
+        }
+        multiCurrency = budget.fork();
+        multiCurrency.setFxRates(rates.build());
+        int firstDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+        for (int i = 0; i < expenses / 5; i++) {
+            multiCurrency.addExpense(CATEGORIES[random.nextInt(CATEGORIES.length)], (long) random.nextInt(20_000),
+                    i % 2 == 0 ? "EUR" : "GBP", firstDay + random.nextInt(1_500));
+        }
+    }
+
+    static Main.BudgetManager filledBudget(int count, long seed) {
+        Random random = new Random(seed);
+        Main.BudgetManager budget = new Main.BudgetManager(4_000);
+        int firstDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+        for (int i = 0; i < count; i++) {
+            budget.addExpense(CATEGORIES[random.nextInt(CATEGORIES.length)], (long) random.nextInt(20_000), firstDay + random.nextInt(1_500));
+        }
+        return budget;
+    }
+
+    @Benchmark
+    public double getTotalSpent() {
+        return budget.getTotalSpent();
+    }
+
+    @Benchmark
+    public HashMap<String, Double> getByCategory() {
+        return budget.getByCategory();
+    }
+
+    @Benchmark
+    public HashMap<String, Double> getByCategoryForMonth() {
+        return budget.getByCategory(month);
+    }
+
+    @Benchmark
+    public long recomputeTotalSpent() {
+        return budget.getStore().sumCents();
+    }
+
+    @Benchmark
+    public long[] recomputeByCategory() {
+        return budget.getStore().sumCentsByCategory();
+    }
+
+    // Formats every amount into one reused buffer, as a report writer would
+    @Benchmark
+    public int formatAllAmounts() {
+        ExpenseStore store = budget.getStore();
+        char[] buf = new char[Money.MAX_LENGTH];
+        int chars = 0;
+        for (int i = 0; i < store.size(); i++) {
+            chars += Money.format(store.getCents(i), buf, 0);
+        }
+        return chars;
+    }
+
+    // Median from the sketches vs sorting every amount
+    @Benchmark
+    public double medianFromSketch() {
+        return budget.getExpenseQuantile(null, 0.5);
+    }
+
+    @Benchmark
+    public long medianBySorting() {
+        ExpenseStore store = budget.getStore();
+        long[] cents = new long[store.size()];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = store.getCents(i);
+        }
+        Arrays.sort(cents);
+        return cents[(cents.length - 1) / 2];
+    }
+
+    @Benchmark
+    public List<Expense> largestInYear() {
+        return budget.getLargestExpenses(YearMonth.of(2022, 1), YearMonth.of(2022, 12), 10);
+    }
+
+    // Copy-on-write fork: should not grow with the number of expenses
+    @Benchmark
+    public Main.BudgetManager fork() {
+        return budget.fork();
+    }
+
+    @Benchmark
+    public List<Scenario.Summary> summarizeScenarios() {
+        return Scenario.summarizeAll(scenarios, month);
+    }
+
+    @Benchmark
+    public String renderSummary() {
+        return MainGUI.buildSummary(budget, month);
+    }
+
+    // Ten years of recurring rules counted in closed form, against walking every occurrence
+    @Benchmark
+    public long recurringDecade() {
+        return recurring.getRecurringCents(LocalDate.of(2020, 1, 1), LocalDate.of(2029, 12, 31));
+    }
+
+    @Benchmark
+    public long recurringDecadeIterated() {
+        long cents = 0;
+        for (Expense e : recurring.getRecurringExpenses(LocalDate.of(2020, 1, 1), LocalDate.of(2029, 12, 31))) {
+            cents += e.getCents();
+        }
+        return cents;
+    }
+
+    // Category totals in the base currency come from the running totals; in another
+    // currency every row is converted at its own date in one pass
+    @Benchmark
+    public HashMap<String, Long> byCategoryInBase() {
+        return multiCurrency.getCentsByCategory(Money.BASE_CURRENCY);
+    }
+
+    @Benchmark
+    public HashMap<String, Long> byCategoryInEuros() {
+        return multiCurrency.getCentsByCategory("EUR");
+    }
+}
@@ -0,0 +1,188 @@
+package financeeasy;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// --------------------- Calculators Benchmark ---------------------
+// Per-call cost of the scalar calculators, and throughput of the batch versions
+// over a rate sheet of BATCH scenarios (reported per scenario via OperationsPerInvocation).
+// The cached variants go through CalculatorCache: standard quarter-point rates hit its
+// tables, the off-grid rate hits the direct-mapped cache.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorsBenchmark {
+    private static final int BATCH = 1_000_000;
+
+    private double principal = 250_000;
+    private double rate = 0.0625;
+    private int years = 30;
+    private double offGridRate = 0.0637;
+    private final CalculatorCache cache = new CalculatorCache(1024);
+
+    private double[] principals;
+    private double[] rates;
+    private int[] timesPerYear;
+    private int[] terms;
+    private double[] out;
+    private long[] incomeCents;
+    private long[] taxCents;
+    private double[] payments;
+    private int[] months;
+    private int[] monthsOut;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        principals = new double[BATCH];
+        rates = new double[BATCH];
+        timesPerYear = new int[BATCH];
+        terms = new int[BATCH];
+        out = new double[BATCH];
+        incomeCents = new long[BATCH];
+        taxCents = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            principals[i] = 50_000 + random.nextInt(950_000);
+            rates[i] = (8 + random.nextInt(40)) / 400.0; // quarter points from 2% to 12%
+            timesPerYear[i] = 12;
+            terms[i] = new int[]{15, 20, 30}[random.nextInt(3)];
+            incomeCents[i] = random.nextInt(500_000_00);
+        }
+        // Payments for the same loans, so the solvers recover the rates above
+        payments = new double[BATCH];
+        Calculators.calculateMonthlyLoanPayment(principals, rates, terms, payments);
+        months = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            months[i] = terms[i] * 12;
+        }
+        monthsOut = new int[BATCH];
+        checkCacheMatchesCalculators();
+    }
+
+    // The cached results must be bit-for-bit the uncached ones, including on edge inputs
+    // (no compounding, negative and zero rates and terms, NaN) that share cache slots with
+    // loan factors; each input is asked twice so both the miss and the hit are checked
+    private static void checkCacheMatchesCalculators() {
+        CalculatorCache edge = new CalculatorCache(16);
+        double[] edgeRates = {0, -0.0, 0.05, 0.0637, -0.03, 1e-12, 5, Double.NaN};
+        int[] edgeCounts = {0, 1, 4, 12, -12, 365, 41};
+        int[] edgeYears = {0, 1, 10, 30, 41, -5};
+        for (int pass = 0; pass < 2; pass++) {
+            for (double r : edgeRates) {
+                for (int y : edgeYears) {
+                    double loan = Calculators.calculateMonthlyLoanPayment(200_000, r, y);
+                    double cachedLoan = edge.calculateMonthlyLoanPayment(200_000, r, y);
+                    if (Double.doubleToLongBits(loan) != Double.doubleToLongBits(cachedLoan)) {
+                        throw new IllegalStateException("Cached loan payment differs for rate " + r + ", " + y + " years");
+                    }
+                    for (int n : edgeCounts) {
+                        double compound = Calculators.calculateCompoundInterest(1000, r, n, y);
+                        double cachedCompound = edge.calculateCompoundInterest(1000, r, n, y);
+                        if (Double.doubleToLongBits(compound) != Double.doubleToLongBits(cachedCompound)) {
+                            throw new IllegalStateException("Cached compound interest differs for rate " + r + ", " + n + " times a year, " + y + " years");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public double loanPayment() {
+        return Calculators.calculateMonthlyLoanPayment(principal, rate, years);
+    }
+
+    @Benchmark
+    public double compoundInterest() {
+        return Calculators.calculateCompoundInterest(principal, rate, 12, years);
+    }
+
+    @Benchmark
+    public double loanPaymentCachedTable() {
+        return cache.calculateMonthlyLoanPayment(principal, rate, years);
+    }
+
+    @Benchmark
+    public double loanPaymentCachedOffGrid() {
+        return cache.calculateMonthlyLoanPayment(principal, offGridRate, years);
+    }
+
+    @Benchmark
+    public double compoundInterestCachedTable() {
+        return cache.calculateCompoundInterest(principal, rate, 12, years);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void loanPaymentCachedLoop(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(cache.calculateMonthlyLoanPayment(principals[i], rates[i], terms[i]));
+        }
+    }
+
+    @Benchmark
+    public double estimateTax() {
+        return Calculators.estimateTax(principal, rate);
+    }
+
+    @Benchmark
+    public long estimateTaxBrackets() {
+        return TaxBrackets.SINGLE.taxCents(incomeCents[0], RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] estimateTaxBracketsBatch() {
+        TaxBrackets.SINGLE.taxCents(incomeCents, null, RoundingMode.HALF_EVEN, taxCents);
+        return taxCents;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void loanPaymentScalarLoop(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(Calculators.calculateMonthlyLoanPayment(principals[i], rates[i], terms[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] loanPaymentBatch() {
+        Calculators.calculateMonthlyLoanPayment(principals, rates, terms, out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] compoundInterestBatch() {
+        Calculators.calculateCompoundInterest(principals, rates, timesPerYear, terms, out);
+        return out;
+    }
+
+    // Newton solve for the rate behind a payment; capped iterations, so the batch has no slow tail
+    @Benchmark
+    public double impliedRate() {
+        return Solvers.impliedAnnualRate(principals[0], payments[0], months[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] impliedRateBatch() {
+        Solvers.impliedAnnualRate(principals, payments, months, out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] monthsToPayoffBatch() {
+        Solvers.monthsToPayoff(principals, rates, payments, monthsOut);
+        return monthsOut;
+    }
+}
@@ -0,0 +1,49 @@
+package financeeasy;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// --------------------- Concurrent Ledger Benchmark ---------------------
+// Ingestion throughput with one producer and with one producer per core.
+// Scaling is the ratio between the two scores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConcurrentLedgerBenchmark {
+    private ConcurrentLedger ledger;
+
+    // A fresh ledger per iteration keeps memory bounded
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ledger = new ConcurrentLedger();
+    }
+
+    private void addOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String category = BudgetManagerBenchmark.CATEGORIES[random.nextInt(BudgetManagerBenchmark.CATEGORIES.length)];
+        ledger.addExpense(category, (long) random.nextInt(20_000), 19_000 + random.nextInt(1_500));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addSingleProducer() {
+        addOne();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void addAllCores() {
+        addOne();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ConcurrentLedger.Snapshot snapshot() {
+        return ledger.snapshot();
+    }
+}
@@ -0,0 +1,44 @@
+package financeeasy;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// --------------------- Expense Benchmark ---------------------
+// Cost (time and bytes allocated) of creating an Expense, of adding one to a
+// BudgetManager, and of building an Expense view back from the store.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseBenchmark {
+    private final LocalDate date = LocalDate.of(2024, 3, 15);
+    private final int epochDay = (int) date.toEpochDay();
+    private Main.BudgetManager budget;
+    private int next;
+
+    // A fresh ledger per iteration keeps addExpense from growing it without bound
+    @Setup(Level.Iteration)
+    public void setUp() {
+        budget = BudgetManagerBenchmark.filledBudget(100_000, 7);
+        next = 0;
+    }
+
+    @Benchmark
+    public Expense construct() {
+        return new Expense("Food", 12.5, date);
+    }
+
+    @Benchmark
+    public void addExpense() {
+        budget.addExpense("Food", 1250L, epochDay);
+    }
+
+    @Benchmark
+    public String expenseToString() {
+        return budget.getStore().get(next++ % 100_000).toString();
+    }
+}
@@ -0,0 +1,69 @@
+package financeeasy;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// --------------------- Import Benchmark ---------------------
+// End-to-end CSV ingestion into a fresh BudgetManager, and loading the same rows
+// from a LedgerFile. The score is time per row (OperationsPerInvocation), so
+// 1e9 / score is rows per second.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ImportBenchmark {
+    private static final int ROWS = 1_000_000;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Path file;
+    private Path ledgerFile;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("financeeasy-bench", ".csv");
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("Date,Category,Amount\n");
+            for (int i = 0; i < ROWS; i++) {
+                out.write(String.format("%d-%02d-%02d,%s,%d.%02d%n",
+                        2018 + random.nextInt(7), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                        BudgetManagerBenchmark.CATEGORIES[random.nextInt(BudgetManagerBenchmark.CATEGORIES.length)],
+                        random.nextInt(500), random.nextInt(100)));
+            }
+        }
+        Main.BudgetManager budget = new Main.BudgetManager(0);
+        new CsvImporter().importFile(file, budget);
+        ledgerFile = Files.createTempFile("financeeasy-bench", ".felg");
+        LedgerFile.write(budget.getStore(), ledgerFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(ledgerFile);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Main.BudgetManager importCsv() throws IOException {
+        Main.BudgetManager budget = new Main.BudgetManager(0);
+        new CsvImporter(0, 1, 2, ',', true, threads).importFile(file, budget);
+        return budget;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ExpenseStore loadLedgerFile() throws IOException {
+        return LedgerFile.open(ledgerFile).read();
+    }
+}
@@ -1,30 +0,0 @@
-import java.time.LocalDate;
-
-// --------------------- Expense Class ---------------------
-public class Expense {
-    private String category;
-    private double amount;
-    private LocalDate date;
-
-    public Expense(String category, double amount, LocalDate date) {
-        this.category = category;
-        this.amount = amount;
-        this.date = date;
-    }
-
-    public String getCategory() {
-        return category;
-    }
-
-    public double getAmount() {
-        return amount;
-    }
-
-    public LocalDate getDate() {
-        return date;
-    }
-
-    public String toString() {
-        return date.toString() + " - " + category + ": $" + amount;
-    }
-}